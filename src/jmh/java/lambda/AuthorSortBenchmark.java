@@ -0,0 +1,89 @@
+package lambda;
+
+import static lambda.Sort.sort;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Locale;
+import java.text.Collator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorting authors and names, with {@link Sort} and the way
+ * {@link GettingStarted} does it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AuthorSortBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private List<Author> authors;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void createAuthors() {
+        Random random = new Random(42);
+        authors = new ArrayList<>(size);
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = "author" + random.nextInt(size);
+            authors.add(new Author(name, 1900 + random.nextInt(120)));
+            names.add(name);
+        }
+    }
+
+    @Benchmark
+    public List<Author> byYear() {
+        return sort(authors).by(Author::getYear);
+    }
+
+    @Benchmark
+    public List<Author> byIntYear() {
+        return sort(authors).byInt(Author::getYear);
+    }
+
+    @Benchmark
+    public List<Author> byName() {
+        return sort(authors).by(Author::getName);
+    }
+
+    @Benchmark
+    public List<Author> byNameWithCollator() {
+        Collator collator = Collator.getInstance(Locale.FRENCH);
+        List<Author> sorted = new ArrayList<>(authors);
+        sorted.sort((a, b) -> collator.compare(a.getName(), b.getName()));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Author> byNameCollationKeys() {
+        return sort(authors).byCollation(Author::getName, Locale.FRENCH);
+    }
+
+    @Benchmark
+    public List<String> sortListByName() {
+        // sortListByName sorts in place, so it gets its own copy
+        return new GettingStarted().sortListByName(new ArrayList<>(names));
+    }
+
+}
@@ -0,0 +1,69 @@
+package lambda;
+
+import static lambda.Sort.sort;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sequential against parallel sorting, to find out where the crossover
+ * between both lies
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelSortBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private List<Car> cars;
+
+    @Setup(Level.Trial)
+    public void createCars() {
+        Random random = new Random(42);
+        cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car("citroen", "ds" + i, random.nextDouble() * 10000));
+        }
+    }
+
+    @Benchmark
+    public List<Car> sequentialByKey() {
+        return sort(cars).byKey(car -> car.price);
+    }
+
+    @Benchmark
+    public List<Car> parallelByKey() {
+        return sort(cars).parallel().byKey(car -> car.price);
+    }
+
+    @Benchmark
+    public List<Car> sequentialByDouble() {
+        return sort(cars).byDouble(car -> car.price);
+    }
+
+    @Benchmark
+    public List<Car> parallelByDouble() {
+        return sort(cars).parallel().byDouble(car -> car.price);
+    }
+
+}
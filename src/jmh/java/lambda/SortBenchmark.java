@@ -0,0 +1,98 @@
+package lambda;
+
+import static lambda.Sort.sort;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the comparator based {@link Sort#by(SortStrategy)} against the
+ * decorate-sort-undecorate {@link Sort#byKey(SortStrategy)}, boxed
+ * against primitive keys, merge against radix sorting and a full sort
+ * against ranking the first page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Car> cars;
+
+    /**
+     * A key that is deliberately not free to compute, like the ones
+     * normalizing strings
+     */
+    private final SortStrategy<Car,Comparable> normalizedModel =
+        car -> car.model.trim().toLowerCase();
+
+    @Setup(Level.Trial)
+    public void createCars() {
+        Random random = new Random(42);
+        cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car("citroen", " DS" + random.nextInt(size) + " ", random.nextDouble() * 10000));
+        }
+    }
+
+    @Benchmark
+    public List<Car> byComparator() {
+        return sort(cars).by(normalizedModel);
+    }
+
+    @Benchmark
+    public List<Car> byExtractedKey() {
+        return sort(cars).byKey(normalizedModel);
+    }
+
+    @Benchmark
+    public List<Car> byBoxedPrice() {
+        return sort(cars).by(car -> car.price);
+    }
+
+    @Benchmark
+    public List<Car> byPrimitivePrice() {
+        return sort(cars).byDouble(car -> car.price);
+    }
+
+    @Benchmark
+    public List<Car> byRoundedPriceComparison() {
+        return sort(cars).using(SortEngine.COMPARISON).byInt(car -> car.price.intValue());
+    }
+
+    @Benchmark
+    public List<Car> byRoundedPriceRadix() {
+        return sort(cars).using(SortEngine.RADIX).byInt(car -> car.price.intValue());
+    }
+
+    @Benchmark
+    public List<Car> firstPageSortingAll() {
+        return sort(cars).by(car -> car.price).subList(0, 10);
+    }
+
+    @Benchmark
+    public List<Car> firstPageRanking() {
+        return sort(cars).top(10, car -> car.price);
+    }
+
+}
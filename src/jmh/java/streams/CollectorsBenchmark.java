@@ -0,0 +1,90 @@
+package streams;
+
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lambda.Author;
+
+/**
+ * The aggregations of StreamTests over bigger author lists, sequential and
+ * parallel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectorsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private List<Author> authors;
+
+    @Setup(Level.Trial)
+    public void createAuthors() {
+        Random random = new Random(42);
+        authors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            authors.add(new Author("author" + random.nextInt(size / 10 + 1), 1900 + random.nextInt(120)));
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingByYear() {
+        return (parallel ? authors.parallelStream() : authors.stream()).collect(
+            Collectors.groupingBy(Author::getYear, Collectors.counting())
+        );
+    }
+
+    @Benchmark
+    public IntLongMap countingByYearPrimitive() {
+        return (parallel ? authors.parallelStream() : authors.stream()).collect(
+            PrimitiveCollectors.countingByInt(Author::getYear)
+        );
+    }
+
+    @Benchmark
+    public Map<String, Integer> summingYearsByName() {
+        return (parallel ? authors.parallelStream() : authors.stream()).collect(
+            Collectors.groupingBy(Author::getName, Collectors.summingInt(Author::getYear))
+        );
+    }
+
+    @Benchmark
+    public Map<String, Integer> greatestYearByName() {
+        return (parallel ? authors.parallelStream() : authors.stream()).collect(
+            Collectors.toMap(Author::getName, Author::getYear, Math::max)
+        );
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summarizingYears() {
+        return (parallel ? authors.parallelStream() : authors.stream()).collect(
+            Collectors.summarizingInt(Author::getYear)
+        );
+    }
+
+}
@@ -0,0 +1,75 @@
+package streams;
+
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lambda.Author;
+
+/**
+ * Counting authors by name, a high cardinality key. Run with different
+ * -Djava.util.concurrent.ForkJoinPool.common.parallelism values to see how
+ * each form scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentGroupingBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"100", "1000000"})
+    private int distinctNames;
+
+    private List<Author> authors;
+
+    @Setup(Level.Trial)
+    public void createAuthors() {
+        Random random = new Random(42);
+        authors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            authors.add(new Author("author" + random.nextInt(distinctNames), 1900 + random.nextInt(120)));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> sequentialGroupingBy() {
+        return authors.stream().collect(Collectors.groupingBy(Author::getName, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> parallelGroupingBy() {
+        return authors.parallelStream().collect(Collectors.groupingBy(Author::getName, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> parallelGroupingByConcurrent() {
+        return authors.parallelStream().collect(Collectors.groupingByConcurrent(Author::getName, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> parallelCountingConcurrent() {
+        return authors.parallelStream().collect(ConcurrentCollectors.countingConcurrent(Author::getName));
+    }
+
+}
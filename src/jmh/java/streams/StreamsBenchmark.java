@@ -0,0 +1,99 @@
+package streams;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lambda.Car;
+import lambda.CarTable;
+
+/**
+ * Boxed against primitive streams, sequential against parallel, objects
+ * against columns
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private List<Car> cars;
+    private CarTable table;
+
+    @Setup(Level.Trial)
+    public void createCars() {
+        Random random = new Random(42);
+        cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car("citroen", "ds" + random.nextInt(10), random.nextDouble() * 10000));
+        }
+        table = CarTable.of(cars);
+    }
+
+    private Stream<Car> cars() {
+        return parallel ? cars.parallelStream() : cars.stream();
+    }
+
+    @Benchmark
+    public double boxedPriceSum() {
+        return cars().map(car -> car.price).reduce(0.0, Double::sum);
+    }
+
+    @Benchmark
+    public double primitivePriceSum() {
+        return cars().mapToDouble(car -> car.price).sum();
+    }
+
+    @Benchmark
+    public long filteringByPrice() {
+        return cars().filter(car -> car.price >= 4000).count();
+    }
+
+    @Benchmark
+    public long columnarFilteringByPrice() {
+        return table.countPriceAtLeast(4000);
+    }
+
+    @Benchmark
+    public String joiningModels() {
+        return cars().map(Car::toString).collect(Collectors.joining("|"));
+    }
+
+    @Benchmark
+    public int boxedRange() {
+        Stream<Integer> numbers = IntStream.range(0, size).boxed();
+        return (parallel ? numbers.parallel() : numbers).reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int primitiveRange() {
+        IntStream numbers = IntStream.range(0, size);
+        return (parallel ? numbers.parallel() : numbers).sum();
+    }
+
+}
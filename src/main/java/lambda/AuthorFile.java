@@ -0,0 +1,106 @@
+package lambda;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.DataOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
+import java.util.stream.Stream;
+
+/**
+ * A read-only dataset of authors memory mapped from a file. Each author is
+ * an 8 bytes record: name code and year ({@link #NO_YEAR} when missing).
+ *
+ * @see CarFile
+ */
+public final class AuthorFile implements Closeable {
+
+    /**
+     * Stored in place of a missing year, the same value as in memory
+     */
+    public static final int NO_YEAR = Years.MISSING;
+
+    private static final int MAGIC = 0x41555448;
+    private static final int RECORD_SIZE = 8;
+    private static final int NAME = 0;
+    private static final int YEAR = 4;
+
+    private final FileChannel channel;
+    private final DatasetFile data;
+
+    private AuthorFile(final FileChannel channel, final DatasetFile data) {
+        this.channel = channel;
+        this.data = data;
+    }
+
+    /**
+     * Writes the authors as they come, holding only the dictionary in
+     * memory. Returns how many authors were written.
+     */
+    public static long write(final Path path, final Stream<Author> authors) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            final DatasetFile.Writer writer = new DatasetFile.Writer(channel, MAGIC, RECORD_SIZE);
+            try {
+                authors.forEachOrdered(author -> {
+                    try {
+                        final int name = writer.encode(author.getName());
+                        final DataOutputStream record = writer.record();
+                        record.writeInt(name);
+                        record.writeInt(Years.of(author.getYear()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return writer.finish();
+        }
+    }
+
+    public static AuthorFile open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new AuthorFile(channel, DatasetFile.map(channel, MAGIC, RECORD_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return data.count();
+    }
+
+    public String name(final long row) {
+        return data.decode(data.getInt(row, NAME));
+    }
+
+    /**
+     * Reads straight from the mapped file, nothing is allocated
+     */
+    public int year(final long row) {
+        return data.getInt(row, YEAR);
+    }
+
+    /**
+     * Builds a new author out of the given row
+     */
+    public Author author(final long row) {
+        return new Author(name(row), Years.boxed(year(row)));
+    }
+
+    /**
+     * Every author, built lazily as the stream is consumed
+     */
+    public Stream<Author> authors() {
+        return Stream.iterate(0L, row -> row + 1).limit(size()).map(this::author);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,167 @@
+package lambda;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IntSummaryStatistics;
+
+import streams.IntLongMap;
+
+/**
+ * Authors stored column by column: names as dictionary codes and years as
+ * an int[]. A missing year is stored as {@link Years#MISSING} and left out
+ * of year queries and aggregations, that value can not be an actual year.
+ *
+ * @see CarTable
+ */
+public final class AuthorTable {
+
+    private final Dictionary names = new Dictionary();
+    private int[] nameCodes;
+    private int[] years;
+    private int size;
+
+    public AuthorTable() {
+        this(16);
+    }
+
+    public AuthorTable(final int capacity) {
+        nameCodes = new int[capacity];
+        years = new int[capacity];
+    }
+
+    public static AuthorTable of(final Collection<Author> authors) {
+        final AuthorTable table = new AuthorTable(authors.size());
+        for (Author author : authors) {
+            table.add(author);
+        }
+        return table;
+    }
+
+    public void add(final Author author) {
+        final int year = Years.of(author.getYear());
+        if (size == years.length) {
+            final int capacity = Math.max(16, size * 2);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            years = Arrays.copyOf(years, capacity);
+        }
+
+        nameCodes[size] = names.encode(author.getName());
+        years[size] = year;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(final int row) {
+        return names.decode(nameCodes[checked(row)]);
+    }
+
+    /**
+     * The year of the row or {@link Years#MISSING} when missing
+     */
+    public int year(final int row) {
+        return years[checked(row)];
+    }
+
+    /**
+     * Builds a new author out of the given row
+     */
+    public Author author(final int row) {
+        return new Author(name(row), Years.boxed(year(row)));
+    }
+
+    /**
+     * Rows with a year in [from, to)
+     */
+    public int[] whereYearBetween(final int from, final int to) {
+        final int[] rows = new int[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            final int year = years[row];
+            if (year != Years.MISSING && year >= from && year < to) {
+                rows[matches++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    public int[] whereName(final String name) {
+        final int code = names.codeOf(name);
+        if (code == Dictionary.NULL && name != null) {
+            return new int[0];
+        }
+
+        final int[] rows = new int[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            if (nameCodes[row] == code) {
+                rows[matches++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    /**
+     * All rows ordered by ascending year, those without a year last. Years
+     * span small ranges, so this is a linear counting or radix sort.
+     */
+    public int[] sortedByYear() {
+        // the missing year sentinel would widen the range to sort
+        final int[] rows = new int[size];
+        final int[] knownYears = new int[size];
+        int known = 0;
+        for (int row = 0; row < size; row++) {
+            if (years[row] != Years.MISSING) {
+                rows[known] = row;
+                knownYears[known++] = years[row];
+            }
+        }
+
+        final int[] order = RadixSort.sort(Arrays.copyOf(knownYears, known));
+        final int[] sorted = new int[size];
+        for (int i = 0; i < known; i++) {
+            sorted[i] = rows[order[i]];
+        }
+        for (int row = 0, missing = known; row < size; row++) {
+            if (years[row] == Years.MISSING) {
+                sorted[missing++] = row;
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Authors per year, those without a year are not counted
+     */
+    public IntLongMap countByYear() {
+        final IntLongMap counts = new IntLongMap();
+        for (int row = 0; row < size; row++) {
+            if (years[row] != Years.MISSING) {
+                counts.add(years[row], 1);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Statistics of the known years
+     */
+    public IntSummaryStatistics yearStatistics() {
+        final IntSummaryStatistics statistics = new IntSummaryStatistics();
+        for (int row = 0; row < size; row++) {
+            if (years[row] != Years.MISSING) {
+                statistics.accept(years[row]);
+            }
+        }
+        return statistics;
+    }
+
+    private int checked(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+}
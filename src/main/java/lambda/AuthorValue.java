@@ -0,0 +1,79 @@
+package lambda;
+
+import java.util.Objects;
+
+/**
+ * An immutable author with a primitive year, safe to share between
+ * threads and to use as a map key. The hash code is computed once. A
+ * missing year is {@link Years#MISSING}.
+ */
+public final class AuthorValue {
+
+    private final String name;
+    private final int year;
+    private final int hash;
+
+    private AuthorValue(final String name, final int year) {
+        this.name = name;
+        this.year = year;
+        this.hash = 31 * Objects.hashCode(name) + year;
+    }
+
+    public static AuthorValue of(final String name, final int year) {
+        return new AuthorValue(name, year);
+    }
+
+    public static AuthorValue of(final Author author) {
+        return new AuthorValue(author.getName(), yearOf(author));
+    }
+
+    /**
+     * Same as {@link #of(Author)} sharing name strings through the interner
+     */
+    public static AuthorValue of(final Author author, final Interner interner) {
+        return new AuthorValue(interner.intern(author.getName()), yearOf(author));
+    }
+
+    public Author toAuthor() {
+        return new Author(name, Years.boxed(year));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public boolean hasYear() {
+        return year != Years.MISSING;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AuthorValue)) {
+            return false;
+        }
+
+        final AuthorValue author = (AuthorValue) other;
+        return hash == author.hash && year == author.year && Objects.equals(name, author.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + (hasYear() ? String.valueOf(year) : "no year") + ")";
+    }
+
+    private static int yearOf(final Author author) {
+        return Years.of(author.getYear());
+    }
+}
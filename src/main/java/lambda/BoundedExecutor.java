@@ -0,0 +1,88 @@
+package lambda;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks in another executor but never more than a given number at
+ * once. The rest wait in an unbounded queue, in submission order. Useful to
+ * cap how many {@link Sort#byAsync(SortStrategy, Executor)} calls share a
+ * pool or an executor of virtual threads.
+ */
+public final class BoundedExecutor implements Executor {
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public BoundedExecutor(final Executor executor, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Queues the task and starts a worker if a slot is free. Workers run
+     * queued tasks one after the other until the queue is empty, so only
+     * starting a worker can be rejected by the other executor. Then the
+     * RejectedExecutionException is thrown for this task, and queued tasks
+     * no worker would pick up run in the calling thread instead of being
+     * lost.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        waiting.add(task);
+        if (!acquire()) {
+            // a running worker picks it up
+            return;
+        }
+
+        try {
+            executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            running.decrementAndGet();
+            final boolean pending = waiting.remove(task);
+            while (!waiting.isEmpty() && acquire()) {
+                work();
+            }
+            if (pending) {
+                throw e;
+            }
+        }
+    }
+
+    private void work() {
+        do {
+            Runnable next;
+            while ((next = waiting.poll()) != null) {
+                try {
+                    next.run();
+                } catch (Throwable e) {
+                    final Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+            running.decrementAndGet();
+            // a task queued while every slot looked taken has nobody else to run it
+        } while (!waiting.isEmpty() && acquire());
+    }
+
+    private boolean acquire() {
+        while (true) {
+            final int current = running.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package lambda;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Cars indexed by brand, model and price, so lookups like
+ *
+ * <pre>
+ * cars.stream().filter(car -&gt; car.brand.equals("ford")).findFirst().flatMap(Car::getModel)
+ * </pre>
+ *
+ * become {@code catalog.firstByBrand("ford").flatMap(Car::getModel)}: a
+ * hash lookup instead of a scan. Brands and models are compared with
+ * equals, prices through a sorted index.
+ *
+ * Cars are told apart by identity. Each car remembers the keys it was
+ * indexed under, so it can always be removed. When the fields of a car
+ * change, {@link #changed(Car)} must be called before querying again. Not
+ * thread-safe.
+ */
+public final class CarCatalog {
+
+    private final Map<Car,Keys> cars = new IdentityHashMap<>();
+    private final Map<String,Set<Car>> byBrand = new HashMap<>();
+    private final Map<String,Set<Car>> byModel = new HashMap<>();
+    private final TreeMap<Double,Set<Car>> byPrice = new TreeMap<>();
+
+    public static CarCatalog of(final Iterable<Car> cars) {
+        final CarCatalog catalog = new CarCatalog();
+        for (Car car : cars) {
+            catalog.add(car);
+        }
+        return catalog;
+    }
+
+    public void add(final Car car) {
+        if (cars.containsKey(car)) {
+            throw new IllegalArgumentException("Car already in the catalog: " + car);
+        }
+
+        final Keys keys = new Keys(car);
+        cars.put(car, keys);
+        index(car, keys);
+    }
+
+    public boolean remove(final Car car) {
+        final Keys keys = cars.remove(car);
+        if (keys == null) {
+            return false;
+        }
+
+        unindex(car, keys);
+        return true;
+    }
+
+    /**
+     * Indexes the car again under its current brand, model and price
+     */
+    public void changed(final Car car) {
+        final Keys keys = cars.get(car);
+        if (keys == null) {
+            throw new NoSuchElementException("Car not in the catalog: " + car);
+        }
+
+        unindex(car, keys);
+        final Keys current = new Keys(car);
+        cars.put(car, current);
+        index(car, current);
+    }
+
+    public boolean contains(final Car car) {
+        return cars.containsKey(car);
+    }
+
+    public int size() {
+        return cars.size();
+    }
+
+    /**
+     * Cars of the brand in the order they were indexed
+     */
+    public List<Car> byBrand(final String brand) {
+        return list(byBrand.get(brand));
+    }
+
+    public Optional<Car> firstByBrand(final String brand) {
+        return first(byBrand.get(brand));
+    }
+
+    /**
+     * Cars of the model in the order they were indexed. Cars without a
+     * model are found with null.
+     */
+    public List<Car> byModel(final String model) {
+        return list(byModel.get(model));
+    }
+
+    public Optional<Car> firstByModel(final String model) {
+        return first(byModel.get(model));
+    }
+
+    /**
+     * Cars priced in [from, to), cheapest first. Cars without a price are
+     * never returned.
+     */
+    public List<Car> pricedBetween(final double from, final double to) {
+        final List<Car> result = new ArrayList<>();
+        for (Set<Car> priced : byPrice.subMap(from, true, to, false).values()) {
+            result.addAll(priced);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public Optional<Car> cheapest() {
+        return byPrice.isEmpty() ? Optional.empty() : first(byPrice.firstEntry().getValue());
+    }
+
+    public Stream<Car> stream() {
+        return cars.keySet().stream();
+    }
+
+    private void index(final Car car, final Keys keys) {
+        byBrand.computeIfAbsent(keys.brand, brand -> new LinkedHashSet<>()).add(car);
+        byModel.computeIfAbsent(keys.model, model -> new LinkedHashSet<>()).add(car);
+        if (keys.price != null) {
+            byPrice.computeIfAbsent(keys.price, price -> new LinkedHashSet<>()).add(car);
+        }
+    }
+
+    private void unindex(final Car car, final Keys keys) {
+        unindex(byBrand, keys.brand, car);
+        unindex(byModel, keys.model, car);
+        if (keys.price != null) {
+            unindex(byPrice, keys.price, car);
+        }
+    }
+
+    private static <K> void unindex(final Map<K,Set<Car>> index, final K key, final Car car) {
+        final Set<Car> indexed = index.get(key);
+        indexed.remove(car);
+        if (indexed.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static List<Car> list(final Set<Car> indexed) {
+        return indexed == null ?
+            Collections.<Car>emptyList() :
+            Collections.unmodifiableList(new ArrayList<>(indexed));
+    }
+
+    private static Optional<Car> first(final Set<Car> indexed) {
+        return indexed == null ? Optional.empty() : Optional.of(indexed.iterator().next());
+    }
+
+    /**
+     * What a car was indexed under
+     */
+    private static final class Keys {
+
+        final String brand;
+        final String model;
+        final Double price;
+
+        Keys(final Car car) {
+            this.brand = car.brand;
+            this.model = car.model;
+            this.price = car.price;
+        }
+    }
+}
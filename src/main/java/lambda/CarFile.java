@@ -0,0 +1,160 @@
+package lambda;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.DataOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
+import java.util.stream.Stream;
+
+/**
+ * A read-only dataset of cars memory mapped from a file. Opening it only
+ * reads the header and the brand/model dictionary, the cars themselves stay
+ * in the file and outside the heap until a field is read.
+ *
+ * Each car is a 16 bytes record: brand code, model code and price (NaN when
+ * missing). Mapped memory is released when the instance is garbage
+ * collected, closing only releases the file.
+ */
+public final class CarFile implements Closeable {
+
+    private static final int MAGIC = 0x43415253;
+    private static final int RECORD_SIZE = 16;
+    private static final int BRAND = 0;
+    private static final int MODEL = 4;
+    private static final int PRICE = 8;
+
+    private final FileChannel channel;
+    private final DatasetFile data;
+
+    private CarFile(final FileChannel channel, final DatasetFile data) {
+        this.channel = channel;
+        this.data = data;
+    }
+
+    /**
+     * Writes the cars as they come, holding only the dictionary in memory.
+     * Returns how many cars were written.
+     */
+    public static long write(final Path path, final Stream<Car> cars) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            final DatasetFile.Writer writer = new DatasetFile.Writer(channel, MAGIC, RECORD_SIZE);
+            try {
+                cars.forEachOrdered(car -> {
+                    try {
+                        final int brand = writer.encode(car.brand);
+                        final int model = writer.encode(car.model);
+                        final DataOutputStream record = writer.record();
+                        record.writeInt(brand);
+                        record.writeInt(model);
+                        record.writeDouble(car.price == null ? Double.NaN : car.price);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return writer.finish();
+        }
+    }
+
+    public static CarFile open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new CarFile(channel, DatasetFile.map(channel, MAGIC, RECORD_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return data.count();
+    }
+
+    public String brand(final long row) {
+        return data.decode(data.getInt(row, BRAND));
+    }
+
+    public String model(final long row) {
+        return data.decode(data.getInt(row, MODEL));
+    }
+
+    /**
+     * Reads straight from the mapped file, nothing is allocated
+     */
+    public double price(final long row) {
+        return data.getDouble(row, PRICE);
+    }
+
+    /**
+     * Builds a new car out of the given row
+     */
+    public Car car(final long row) {
+        final double price = price(row);
+        return new Car(brand(row), model(row), Double.isNaN(price) ? null : price);
+    }
+
+    /**
+     * A single reusable view moving over the rows, so scanning the file
+     * does not allocate a car per row
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Every car, built lazily as the stream is consumed
+     */
+    public Stream<Car> cars() {
+        return Stream.iterate(0L, row -> row + 1).limit(size()).map(this::car);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Flyweight over the rows of the file, starting before the first one
+     */
+    public final class Cursor {
+
+        private long row = -1;
+
+        public boolean next() {
+            if (row + 1 >= size()) {
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        public Cursor moveTo(final long row) {
+            if (row < 0 || row >= size()) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size());
+            }
+            this.row = row;
+            return this;
+        }
+
+        public long row() {
+            return row;
+        }
+
+        public String brand() {
+            return CarFile.this.brand(row);
+        }
+
+        public String model() {
+            return CarFile.this.model(row);
+        }
+
+        public double price() {
+            return CarFile.this.price(row);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package lambda;
+
+import java.util.Map;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * Cars stored column by column: brands and models as dictionary codes and
+ * prices as a double[]. Filters, sorts and aggregations are plain loops over
+ * primitive arrays instead of chasing one object per car.
+ *
+ * Rows are referred to by their position. Filters return the matching rows
+ * in ascending order and most operations accept those rows back, so they
+ * can be chained. A missing price is stored as NaN. Not thread-safe.
+ */
+public final class CarTable {
+
+    private final Dictionary brands = new Dictionary();
+    private final Dictionary models = new Dictionary();
+    private int[] brandCodes;
+    private int[] modelCodes;
+    private double[] prices;
+    private int size;
+
+    public CarTable() {
+        this(16);
+    }
+
+    public CarTable(final int capacity) {
+        brandCodes = new int[capacity];
+        modelCodes = new int[capacity];
+        prices = new double[capacity];
+    }
+
+    public static CarTable of(final Collection<Car> cars) {
+        final CarTable table = new CarTable(cars.size());
+        for (Car car : cars) {
+            table.add(car);
+        }
+        return table;
+    }
+
+    public void add(final Car car) {
+        if (size == prices.length) {
+            final int capacity = Math.max(16, size * 2);
+            brandCodes = Arrays.copyOf(brandCodes, capacity);
+            modelCodes = Arrays.copyOf(modelCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+
+        brandCodes[size] = brands.encode(car.brand);
+        modelCodes[size] = models.encode(car.model);
+        prices[size] = car.price == null ? Double.NaN : car.price;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String brand(final int row) {
+        return brands.decode(brandCodes[checked(row)]);
+    }
+
+    public String model(final int row) {
+        return models.decode(modelCodes[checked(row)]);
+    }
+
+    public double price(final int row) {
+        return prices[checked(row)];
+    }
+
+    /**
+     * Builds a new car out of the given row
+     */
+    public Car car(final int row) {
+        final double price = price(row);
+        return new Car(brand(row), model(row), Double.isNaN(price) ? null : price);
+    }
+
+    public int[] wherePriceAtLeast(final double min) {
+        final int[] rows = new int[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            if (prices[row] >= min) {
+                rows[matches++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    /**
+     * Rows with a price in [min, max)
+     */
+    public int[] wherePriceBetween(final double min, final double max) {
+        final int[] rows = new int[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            final double price = prices[row];
+            if (price >= min && price < max) {
+                rows[matches++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    public int[] whereBrand(final String brand) {
+        return whereCode(brandCodes, brands.codeOf(brand), brand == null);
+    }
+
+    public int[] whereModel(final String model) {
+        return whereCode(modelCodes, models.codeOf(model), model == null);
+    }
+
+    public long countPriceAtLeast(final double min) {
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            count += prices[row] >= min ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * All rows ordered by ascending price, like
+     * {@link Sort#byDouble(DoubleSortStrategy)}
+     */
+    public int[] sortedByPrice() {
+        final long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = IndexSort.sortableBits(prices[row]);
+        }
+        return IndexSort.sort(keys);
+    }
+
+    public Map<String,Long> countByBrand() {
+        final long[] counts = new long[brands.size()];
+        for (int row = 0; row < size; row++) {
+            if (brandCodes[row] != Dictionary.NULL) {
+                counts[brandCodes[row]]++;
+            }
+        }
+
+        final Map<String,Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(brands.decode(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Statistics of the known prices, cars without a price are left out
+     */
+    public DoubleSummaryStatistics priceStatistics() {
+        final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+        for (int row = 0; row < size; row++) {
+            if (!Double.isNaN(prices[row])) {
+                statistics.accept(prices[row]);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Statistics of the known prices of the given rows
+     */
+    public DoubleSummaryStatistics priceStatistics(final int[] rows) {
+        final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+        for (int row : rows) {
+            final double price = prices[checked(row)];
+            if (!Double.isNaN(price)) {
+                statistics.accept(price);
+            }
+        }
+        return statistics;
+    }
+
+    private int[] whereCode(final int[] codes, final int code, final boolean lookingForNull) {
+        if (code == Dictionary.NULL && !lookingForNull) {
+            return new int[0];
+        }
+
+        final int[] rows = new int[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            if (codes[row] == code) {
+                rows[matches++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    private int checked(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+}
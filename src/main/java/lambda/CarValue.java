@@ -0,0 +1,94 @@
+package lambda;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable car with a primitive price, safe to share between threads
+ * and to use as a map key. The hash code is computed once. A missing price
+ * is NaN, like in {@link CarTable}.
+ */
+public final class CarValue {
+
+    private final String brand;
+    private final String model;
+    private final double price;
+    private final int hash;
+
+    private CarValue(final String brand, final String model, final double price) {
+        this.brand = brand;
+        this.model = model;
+        this.price = price;
+        this.hash = 31 * (31 * Objects.hashCode(brand) + Objects.hashCode(model)) + Double.hashCode(price);
+    }
+
+    public static CarValue of(final String brand, final String model, final double price) {
+        return new CarValue(brand, model, price);
+    }
+
+    public static CarValue of(final Car car) {
+        return new CarValue(car.brand, car.model, car.price == null ? Double.NaN : car.price);
+    }
+
+    /**
+     * Same as {@link #of(Car)} sharing brand and model strings through the
+     * interner
+     */
+    public static CarValue of(final Car car, final Interner interner) {
+        return new CarValue(
+            interner.intern(car.brand),
+            interner.intern(car.model),
+            car.price == null ? Double.NaN : car.price);
+    }
+
+    public Car toCar() {
+        return new Car(brand, model, Double.isNaN(price) ? null : price);
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public Optional<String> getModel() {
+        return Optional.ofNullable(model);
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public boolean hasPrice() {
+        return !Double.isNaN(price);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CarValue)) {
+            return false;
+        }
+
+        final CarValue car = (CarValue) other;
+        // interned strings are usually the same instance, so equals returns early
+        return hash == car.hash &&
+            Double.doubleToLongBits(price) == Double.doubleToLongBits(car.price) &&
+            Objects.equals(brand, car.brand) &&
+            Objects.equals(model, car.model);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * The model, like {@link Car#toString()}, so either can be joined or
+     * exported the same way
+     */
+    @Override
+    public String toString() {
+        return model;
+    }
+}
@@ -0,0 +1,73 @@
+package lambda;
+
+import java.util.Map;
+import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.text.Collator;
+
+/**
+ * Locale-aware sort keys of strings, computed once and kept across sorts.
+ * Comparing two keys with {@link #compare(byte[], byte[])} gives the same
+ * result as the collator comparing the strings, without redoing the
+ * collation work on every comparison.
+ *
+ * Holds up to maxSize keys, evicting the least recently used one. It can
+ * be shared between threads.
+ */
+public final class CollationKeyCache {
+
+    private final Collator collator;
+    private final Map<String,byte[]> keys;
+
+    public CollationKeyCache(final Locale locale, final int maxSize) {
+        this(Collator.getInstance(locale), maxSize);
+    }
+
+    public CollationKeyCache(final Collator collator, final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxSize);
+        }
+
+        // collators are not thread-safe, this one is only used under the lock
+        this.collator = (Collator) collator.clone();
+        this.keys = new LinkedHashMap<String,byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String,byte[]> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * The collation key of the string as unsigned bytes, null for null
+     */
+    public synchronized byte[] keyOf(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        byte[] key = keys.get(value);
+        if (key == null) {
+            key = collator.getCollationKey(value).toByteArray();
+            keys.put(value, key);
+        }
+        return key;
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * Compares two collation keys as unsigned bytes
+     */
+    public static int compare(final byte[] left, final byte[] right) {
+        final int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            if (left[i] != right[i]) {
+                return (left[i] & 0xFF) - (right[i] & 0xFF);
+            }
+        }
+        return left.length - right.length;
+    }
+}
@@ -0,0 +1,229 @@
+package lambda;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Collections;
+
+/**
+ * Sorts by several keys, the next one only deciding between items whose
+ * previous keys are equal:
+ *
+ * <pre>
+ * sort(cars).by(
+ *     CompositeSortStrategy.&lt;Car&gt;by(car -&gt; car.brand).
+ *         thenByOptional(Car::getModel).
+ *         thenByDescending(car -&gt; car.price));
+ * </pre>
+ *
+ * Every key column is extracted once per item before sorting, primitive
+ * keys into primitive arrays, and items are compared column by column over
+ * those arrays. Missing keys (null or an empty Optional) go last unless
+ * {@link #nullsFirst()} is used. Instances are immutable.
+ */
+public final class CompositeSortStrategy<T> {
+
+    private final List<Column<T>> columns;
+
+    private CompositeSortStrategy(final List<Column<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> CompositeSortStrategy<T> by(final SortStrategy<T,Comparable> strategy) {
+        return new CompositeSortStrategy<T>(Collections.<Column<T>>emptyList()).thenBy(strategy);
+    }
+
+    public static <T> CompositeSortStrategy<T> byOptional(final SortStrategy<T,Optional<? extends Comparable>> strategy) {
+        return new CompositeSortStrategy<T>(Collections.<Column<T>>emptyList()).thenByOptional(strategy);
+    }
+
+    public static <T> CompositeSortStrategy<T> byInt(final IntSortStrategy<T> strategy) {
+        return new CompositeSortStrategy<T>(Collections.<Column<T>>emptyList()).thenByInt(strategy);
+    }
+
+    public static <T> CompositeSortStrategy<T> byLong(final LongSortStrategy<T> strategy) {
+        return new CompositeSortStrategy<T>(Collections.<Column<T>>emptyList()).thenByLong(strategy);
+    }
+
+    public static <T> CompositeSortStrategy<T> byDouble(final DoubleSortStrategy<T> strategy) {
+        return new CompositeSortStrategy<T>(Collections.<Column<T>>emptyList()).thenByDouble(strategy);
+    }
+
+    public CompositeSortStrategy<T> thenBy(final SortStrategy<T,Comparable> strategy) {
+        return then(items -> {
+            final Comparable[] keys = new Comparable[items.length];
+            for (int i = 0; i < items.length; i++) {
+                keys[i] = strategy.get((T) items[i]);
+            }
+            return keys;
+        });
+    }
+
+    public CompositeSortStrategy<T> thenByDescending(final SortStrategy<T,Comparable> strategy) {
+        return thenBy(strategy).descending();
+    }
+
+    /**
+     * Keys wrapped in an Optional, like {@link Car#getModel()}. Empty ones
+     * are handled as missing keys.
+     */
+    public CompositeSortStrategy<T> thenByOptional(final SortStrategy<T,Optional<? extends Comparable>> strategy) {
+        return then(items -> {
+            final Comparable[] keys = new Comparable[items.length];
+            for (int i = 0; i < items.length; i++) {
+                keys[i] = strategy.get((T) items[i]).orElse(null);
+            }
+            return keys;
+        });
+    }
+
+    public CompositeSortStrategy<T> thenByInt(final IntSortStrategy<T> strategy) {
+        return then(items -> {
+            final int[] keys = new int[items.length];
+            for (int i = 0; i < items.length; i++) {
+                keys[i] = strategy.get((T) items[i]);
+            }
+            return keys;
+        });
+    }
+
+    public CompositeSortStrategy<T> thenByLong(final LongSortStrategy<T> strategy) {
+        return then(items -> {
+            final long[] keys = new long[items.length];
+            for (int i = 0; i < items.length; i++) {
+                keys[i] = strategy.get((T) items[i]);
+            }
+            return keys;
+        });
+    }
+
+    public CompositeSortStrategy<T> thenByDouble(final DoubleSortStrategy<T> strategy) {
+        return then(items -> {
+            final long[] keys = new long[items.length];
+            for (int i = 0; i < items.length; i++) {
+                keys[i] = IndexSort.sortableBits(strategy.get((T) items[i]));
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * Reverses the order of the last key
+     */
+    public CompositeSortStrategy<T> descending() {
+        final Column<T> last = last();
+        return replaceLast(new Column<T>(last.extractor, !last.descending, last.nulls));
+    }
+
+    /**
+     * Items missing the last key go before the rest
+     */
+    public CompositeSortStrategy<T> nullsFirst() {
+        final Column<T> last = last();
+        return replaceLast(new Column<T>(last.extractor, last.descending, NullPolicy.FIRST));
+    }
+
+    /**
+     * Items missing the last key go after the rest, which is the default
+     */
+    public CompositeSortStrategy<T> nullsLast() {
+        final Column<T> last = last();
+        return replaceLast(new Column<T>(last.extractor, last.descending, NullPolicy.LAST));
+    }
+
+    int columns() {
+        return columns.size();
+    }
+
+    /**
+     * Extracts all key columns of the given items and returns how to
+     * compare them by position
+     */
+    IndexSort.Positions compile(final Object[] items) {
+        final IndexSort.Positions[] compiled = new IndexSort.Positions[columns.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = columns.get(i).compile(items);
+        }
+
+        if (compiled.length == 1) {
+            return compiled[0];
+        }
+
+        return (a, b) -> {
+            for (IndexSort.Positions column : compiled) {
+                final int comparison = column.compare(a, b);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private CompositeSortStrategy<T> then(final Extractor extractor) {
+        final List<Column<T>> next = new ArrayList<>(columns);
+        next.add(new Column<T>(extractor, false, NullPolicy.LAST));
+        return new CompositeSortStrategy<T>(Collections.unmodifiableList(next));
+    }
+
+    private Column<T> last() {
+        return columns.get(columns.size() - 1);
+    }
+
+    private CompositeSortStrategy<T> replaceLast(final Column<T> column) {
+        final List<Column<T>> next = new ArrayList<>(columns);
+        next.set(next.size() - 1, column);
+        return new CompositeSortStrategy<T>(Collections.unmodifiableList(next));
+    }
+
+    /**
+     * Returns the keys of all items as a Comparable[], int[] or long[]
+     */
+    private interface Extractor {
+        Object extract(Object[] items);
+    }
+
+    private static final class Column<T> {
+
+        final Extractor extractor;
+        final boolean descending;
+        final NullPolicy nulls;
+
+        Column(final Extractor extractor, final boolean descending, final NullPolicy nulls) {
+            this.extractor = extractor;
+            this.descending = descending;
+            this.nulls = nulls;
+        }
+
+        IndexSort.Positions compile(final Object[] items) {
+            final Object keys = extractor.extract(items);
+            final IndexSort.Positions ascending = ascending(keys);
+
+            return descending ? (a, b) -> ascending.compare(b, a) : ascending;
+        }
+
+        private IndexSort.Positions ascending(final Object keys) {
+            if (keys instanceof int[]) {
+                final int[] ints = (int[]) keys;
+                return (a, b) -> Integer.compare(ints[a], ints[b]);
+            }
+
+            if (keys instanceof long[]) {
+                final long[] longs = (long[]) keys;
+                return (a, b) -> Long.compare(longs[a], longs[b]);
+            }
+
+            final Comparable[] comparables = (Comparable[]) keys;
+            // descending reverses the arguments, missing keys must keep their side
+            final int missing = (nulls == NullPolicy.FIRST) != descending ? -1 : 1;
+            return (a, b) -> {
+                final Comparable left = comparables[a];
+                final Comparable right = comparables[b];
+                if (left == null || right == null) {
+                    return left == right ? 0 : (left == null ? missing : -missing);
+                }
+                return left.compareTo(right);
+            };
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package lambda;
+
+import java.io.IOException;
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout shared by {@link CarFile} and {@link AuthorFile}:
+ *
+ * <pre>
+ * header      magic:int version:int count:long dictionaryOffset:long recordSize:int unused:int
+ * records     count fixed size records, strings as dictionary codes
+ * dictionary  size:int, then per string length:int and its UTF-8 bytes
+ * </pre>
+ *
+ * All numbers are big-endian. Records are mapped in segments whose size is
+ * a multiple of the record size, so a record never spans two segments.
+ */
+final class DatasetFile {
+
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final long count;
+    private final int recordSize;
+    private final String[] dictionary;
+    private final MappedByteBuffer[] segments;
+
+    private DatasetFile(final long count, final int recordSize, final String[] dictionary, final MappedByteBuffer[] segments) {
+        this.count = count;
+        this.recordSize = recordSize;
+        this.dictionary = dictionary;
+        this.segments = segments;
+    }
+
+    /**
+     * Maps the records of the file. Only the header and the dictionary are
+     * read eagerly.
+     */
+    static DatasetFile map(final FileChannel channel, final int magic, final int recordSize) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+
+        if (header.getInt() != magic) {
+            throw new IOException("Not a dataset of the expected type");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported dataset version");
+        }
+
+        final long count = header.getLong();
+        final long dictionaryOffset = header.getLong();
+        if (header.getInt() != recordSize || HEADER_SIZE + count * recordSize != dictionaryOffset) {
+            throw new IOException("Corrupted dataset header");
+        }
+
+        final String[] dictionary = readDictionary(channel.map(
+            FileChannel.MapMode.READ_ONLY, dictionaryOffset, channel.size() - dictionaryOffset));
+
+        final long bytes = count * recordSize;
+        final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((bytes + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; i++) {
+            final long offset = i * SEGMENT_SIZE;
+            segments[i] = channel.map(
+                FileChannel.MapMode.READ_ONLY, HEADER_SIZE + offset, Math.min(SEGMENT_SIZE, bytes - offset));
+        }
+
+        return new DatasetFile(count, recordSize, dictionary, segments);
+    }
+
+    long count() {
+        return count;
+    }
+
+    String decode(final int code) {
+        return code == Dictionary.NULL ? null : dictionary[code];
+    }
+
+    int getInt(final long row, final int field) {
+        final long position = position(row) + field;
+        return segments[(int) (position / SEGMENT_SIZE)].getInt((int) (position % SEGMENT_SIZE));
+    }
+
+    double getDouble(final long row, final int field) {
+        final long position = position(row) + field;
+        return segments[(int) (position / SEGMENT_SIZE)].getDouble((int) (position % SEGMENT_SIZE));
+    }
+
+    private long position(final long row) {
+        if (row < 0 || row >= count) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + count);
+        }
+        return row * recordSize;
+    }
+
+    /**
+     * Streams records out through a buffer, then appends the dictionary and
+     * fills in the header
+     */
+    static final class Writer {
+
+        private final FileChannel channel;
+        private final int magic;
+        private final int recordSize;
+        private final DataOutputStream records;
+        private final Dictionary dictionary = new Dictionary();
+        private long count;
+
+        Writer(final FileChannel channel, final int magic, final int recordSize) throws IOException {
+            this.channel = channel;
+            this.magic = magic;
+            this.recordSize = recordSize;
+
+            channel.truncate(0);
+            channel.position(HEADER_SIZE);
+            this.records = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        }
+
+        /**
+         * Where the fields of the next record go
+         */
+        DataOutputStream record() {
+            count++;
+            return records;
+        }
+
+        int encode(final String value) {
+            return dictionary.encode(value);
+        }
+
+        long finish() throws IOException {
+            final long dictionaryOffset = HEADER_SIZE + count * recordSize;
+
+            records.writeInt(dictionary.size());
+            for (int code = 0; code < dictionary.size(); code++) {
+                final byte[] bytes = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+                records.writeInt(bytes.length);
+                records.write(bytes);
+            }
+            records.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(magic).putInt(VERSION).putLong(count).putLong(dictionaryOffset).putInt(recordSize).putInt(0);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            return count;
+        }
+    }
+
+    private static String[] readDictionary(final ByteBuffer buffer) {
+        final String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of dataset");
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package lambda;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+
+/**
+ * Encodes strings as dense int codes, in order of first appearance. null
+ * is encoded as {@link #NULL}. Not thread-safe.
+ */
+public final class Dictionary {
+
+    public static final int NULL = -1;
+
+    private final Map<String,Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Returns the code of the value, assigning a new one if needed
+     */
+    public int encode(final String value) {
+        if (value == null) {
+            return NULL;
+        }
+
+        final Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        final int next = values.size();
+        codes.put(value, next);
+        values.add(value);
+        return next;
+    }
+
+    /**
+     * Returns the code of the value or {@link #NULL} if it was never
+     * encoded, without assigning one
+     */
+    public int codeOf(final String value) {
+        final Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL : code;
+    }
+
+    public String decode(final int code) {
+        return code == NULL ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,10 @@
+package lambda;
+
+/**
+ * A {@link SortStrategy} returning a primitive double key, so sorting by it
+ * does not box
+ */
+public interface DoubleSortStrategy<T> {
+    public double get(T obj);
+}
+
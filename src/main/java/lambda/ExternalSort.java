@@ -0,0 +1,347 @@
+package lambda;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sorts more items than fit in memory. Items are read in runs of
+ * {@link #runSize(int)} items, each run is sorted in memory and spilled to
+ * a temporary file, and then runs are merged {@link #fanIn(int)} at a time
+ * until a last merge hands the items out in order. Memory use is bounded by
+ * one run plus a read buffer per merged run.
+ *
+ * The sort is stable. Instances are immutable and can be reused.
+ */
+public final class ExternalSort<T> {
+
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final SortStrategy<T,Comparable> strategy;
+    private final Serializer<T> serializer;
+    private final int runSize;
+    private final int fanIn;
+    private final int bufferSize;
+    private final Path directory;
+
+    private ExternalSort(
+        final SortStrategy<T,Comparable> strategy,
+        final Serializer<T> serializer,
+        final int runSize,
+        final int fanIn,
+        final int bufferSize,
+        final Path directory) {
+
+        this.strategy = strategy;
+        this.serializer = serializer;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.bufferSize = bufferSize;
+        this.directory = directory;
+    }
+
+    public static <T> ExternalSort<T> by(final SortStrategy<T,Comparable> strategy, final Serializer<T> serializer) {
+        return new ExternalSort<>(strategy, serializer, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE, null);
+    }
+
+    /**
+     * How many items are held and sorted in memory at once
+     */
+    public ExternalSort<T> runSize(final int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        return new ExternalSort<>(strategy, serializer, runSize, fanIn, bufferSize, directory);
+    }
+
+    /**
+     * How many runs are merged at once
+     */
+    public ExternalSort<T> fanIn(final int fanIn) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        }
+        return new ExternalSort<>(strategy, serializer, runSize, fanIn, bufferSize, directory);
+    }
+
+    /**
+     * Size in bytes of the buffer used for every spilled run being written
+     * or read
+     */
+    public ExternalSort<T> bufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        return new ExternalSort<>(strategy, serializer, runSize, fanIn, bufferSize, directory);
+    }
+
+    /**
+     * Where runs are spilled, the default temporary directory otherwise
+     */
+    public ExternalSort<T> tempDirectory(final Path directory) {
+        return new ExternalSort<>(strategy, serializer, runSize, fanIn, bufferSize, directory);
+    }
+
+    public Statistics sort(final Stream<T> items, final Consumer<? super T> sorted) throws IOException {
+        return sort(items.iterator(), sorted);
+    }
+
+    /**
+     * Hands every item to sorted in ascending order. Temporary files are
+     * removed before returning.
+     */
+    public Statistics sort(final Iterator<T> items, final Consumer<? super T> sorted) throws IOException {
+        final Statistics statistics = new Statistics();
+        final List<Path> spilled = new ArrayList<>();
+        List<Run> runs = new ArrayList<>();
+
+        try {
+            while (items.hasNext()) {
+                final List<T> sortedRun = nextRun(items, statistics);
+                if (runs.isEmpty() && !items.hasNext()) {
+                    // everything fit in memory
+                    sortedRun.forEach(sorted);
+                    return statistics;
+                }
+                runs.add(spill(sortedRun.iterator(), sortedRun.size(), statistics, spilled));
+            }
+
+            while (runs.size() > fanIn) {
+                statistics.mergePasses++;
+                final List<Run> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    final List<Run> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                    merged.add(mergeIntoRun(group, statistics, spilled));
+                }
+                runs = merged;
+            }
+
+            if (!runs.isEmpty()) {
+                statistics.mergePasses++;
+                merge(runs, sorted);
+            }
+
+            return statistics;
+        } finally {
+            for (Path path : spilled) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private List<T> nextRun(final Iterator<T> items, final Statistics statistics) {
+        final List<T> run = new ArrayList<>(Math.min(runSize, 1 << 16));
+        while (run.size() < runSize && items.hasNext()) {
+            run.add(items.next());
+        }
+        statistics.items += run.size();
+
+        return Sort.sort(run).byKey(strategy);
+    }
+
+    private Run spill(final Iterator<T> items, final long count, final Statistics statistics, final List<Path> spilled) throws IOException {
+        final Path path = directory == null ?
+            Files.createTempFile("sort-run", ".bin") :
+            Files.createTempFile(directory, "sort-run", ".bin");
+        spilled.add(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize))) {
+
+            while (items.hasNext()) {
+                serializer.write(items.next(), out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        statistics.runs++;
+        statistics.spilledBytes += Files.size(path);
+        return new Run(path, count);
+    }
+
+    private Run mergeIntoRun(final List<Run> group, final Statistics statistics, final List<Path> spilled) throws IOException {
+        long count = 0;
+        for (Run run : group) {
+            count += run.count;
+        }
+
+        // the merged items go straight to the new run, never all in memory
+        final MergeIterator merged = new MergeIterator(group);
+        try {
+            return spill(merged, count, statistics, spilled);
+        } finally {
+            merged.close();
+            for (Run run : group) {
+                Files.deleteIfExists(run.path);
+            }
+        }
+    }
+
+    private void merge(final List<Run> runs, final Consumer<? super T> sorted) throws IOException {
+        final MergeIterator merged = new MergeIterator(runs);
+        try {
+            merged.forEachRemaining(sorted);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            merged.close();
+        }
+    }
+
+    /**
+     * k-way merge of sorted runs through a heap. On equal keys the earlier
+     * run wins, which keeps the sort stable.
+     */
+    private final class MergeIterator implements Iterator<T> {
+
+        private final List<Reader> readers = new ArrayList<>();
+        private final PriorityQueue<Reader> heap;
+
+        MergeIterator(final List<Run> runs) throws IOException {
+            this.heap = new PriorityQueue<>(Math.max(1, runs.size()), Reader::compareTo);
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    final Reader reader = new Reader(runs.get(i), i);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            final Reader reader = heap.poll();
+            final T item = reader.item;
+            try {
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return item;
+        }
+
+        void close() throws IOException {
+            for (Reader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    private final class Reader {
+
+        final DataInputStream in;
+        final int order;
+        long remaining;
+        Comparable key;
+        T item;
+
+        Reader(final Run run, final int order) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(run.path, StandardOpenOption.READ)), bufferSize));
+            this.order = order;
+            this.remaining = run.count;
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            item = serializer.read(in);
+            key = strategy.get(item);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        int compareTo(final Reader other) {
+            final int comparison = key.compareTo(other.key);
+            return comparison != 0 ? comparison : Integer.compare(order, other.order);
+        }
+    }
+
+    private static final class Run {
+
+        final Path path;
+        final long count;
+
+        Run(final Path path, final long count) {
+            this.path = path;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Writes and reads back the spilled items
+     */
+    public interface Serializer<T> {
+        void write(T item, DataOutput out) throws IOException;
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * What a sort did
+     */
+    public static final class Statistics {
+
+        private long items;
+        private long runs;
+        private long spilledBytes;
+        private int mergePasses;
+
+        public long getItems() {
+            return items;
+        }
+
+        /**
+         * Sorted runs written to disk, including those of intermediate
+         * merge passes
+         */
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getSpilledBytes() {
+            return spilledBytes;
+        }
+
+        public int getMergePasses() {
+            return mergePasses;
+        }
+
+        @Override
+        public String toString() {
+            return "items=" + items + ", runs=" + runs + ", spilledBytes=" + spilledBytes + ", mergePasses=" + mergePasses;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.Locale;
 
 /**
  * First lambda sample
@@ -23,4 +24,9 @@ public class GettingStarted {
         return names;
     }
 
+    public List<String> sortListByName(List<String> names, Locale locale) {
+        // Comparing with a Collator is slow, collation keys are computed once
+        return Sort.sort(names).byCollation(name -> name, locale);
+    }
+
 }
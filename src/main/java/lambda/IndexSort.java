@@ -0,0 +1,354 @@
+package lambda;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable merge sort of item positions by primitive keys. The keys are
+ * never boxed and nothing is allocated apart from the resulting order and
+ * one scratch buffer.
+ */
+final class IndexSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private IndexSort() {}
+
+    /**
+     * Returns the positions of the given keys in ascending key order
+     */
+    static int[] sort(final int[] keys) {
+        final int[] order = identity(keys.length);
+        mergeSort(order.clone(), order, 0, order.length, keys);
+        return order;
+    }
+
+    /**
+     * Returns the positions of the given keys in ascending key order
+     */
+    static int[] sort(final long[] keys) {
+        final int[] order = identity(keys.length);
+        mergeSort(order.clone(), order, 0, order.length, keys);
+        return order;
+    }
+
+    /**
+     * Same as {@link #sort(int[])} but ranges bigger than the threshold are
+     * sorted in the common fork-join pool
+     */
+    static int[] parallelSort(final int[] keys, final int threshold) {
+        final int[] order = identity(keys.length);
+        ForkJoinPool.commonPool().invoke(
+            new IntMergeTask(order.clone(), order, 0, order.length, keys, threshold)
+        );
+        return order;
+    }
+
+    /**
+     * Same as {@link #sort(long[])} but ranges bigger than the threshold are
+     * sorted in the common fork-join pool
+     */
+    static int[] parallelSort(final long[] keys, final int threshold) {
+        final int[] order = identity(keys.length);
+        ForkJoinPool.commonPool().invoke(
+            new LongMergeTask(order.clone(), order, 0, order.length, keys, threshold)
+        );
+        return order;
+    }
+
+    /**
+     * Returns the positions 0..length-1 ordered by the given comparison
+     */
+    static int[] sort(final int length, final Positions positions) {
+        final int[] order = identity(length);
+        mergeSort(order.clone(), order, 0, length, positions);
+        return order;
+    }
+
+    /**
+     * Same as {@link #sort(int, Positions)} but ranges bigger than the
+     * threshold are sorted in the common fork-join pool
+     */
+    static int[] parallelSort(final int length, final Positions positions, final int threshold) {
+        final int[] order = identity(length);
+        ForkJoinPool.commonPool().invoke(
+            new PositionsMergeTask(order.clone(), order, 0, length, positions, threshold)
+        );
+        return order;
+    }
+
+    /**
+     * Bottom-up version of {@link #sort(int, Positions)} that asks before
+     * every merge pass whether to go on. Returns null when told to stop.
+     */
+    static int[] sortInPasses(final int length, final Positions positions, final BooleanSupplier proceed) {
+        int[] src = identity(length);
+        int[] dest = new int[length];
+        for (int low = 0; low < length; low += INSERTION_SORT_THRESHOLD) {
+            insertionSort(src, low, Math.min(length, low + INSERTION_SORT_THRESHOLD), positions);
+        }
+
+        for (int width = INSERTION_SORT_THRESHOLD; width < length; width <<= 1) {
+            if (!proceed.getAsBoolean()) {
+                return null;
+            }
+
+            for (int low = 0; low < length; low += 2 * width) {
+                final int mid = Math.min(length, low + width);
+                final int high = Math.min(length, low + 2 * width);
+                if (mid == high) {
+                    System.arraycopy(src, low, dest, low, high - low);
+                } else {
+                    merge(src, dest, low, mid, high, positions);
+                }
+            }
+
+            final int[] merged = dest;
+            dest = src;
+            src = merged;
+        }
+        return src;
+    }
+
+    /**
+     * Maps a double to a long with the same ordering as
+     * {@link Double#compare(double, double)}
+     */
+    static long sortableBits(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static int[] identity(final int length) {
+        final int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts dest[low, high). On entry src and dest hold the same positions.
+     */
+    private static void mergeSort(final int[] src, final int[] dest, final int low, final int high, final int[] keys) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                final int position = dest[i];
+                final int key = keys[position];
+                int j = i;
+                for (; j > low && keys[dest[j - 1]] > key; j--) {
+                    dest[j] = dest[j - 1];
+                }
+                dest[j] = position;
+            }
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, keys);
+        mergeSort(dest, src, mid, high, keys);
+        merge(src, dest, low, mid, high, keys);
+    }
+
+    private static void merge(final int[] src, final int[] dest, final int low, final int mid, final int high, final int[] keys) {
+        if (keys[src[mid - 1]] <= keys[src[mid]]) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && keys[src[p]] <= keys[src[q]]) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    /**
+     * Sorts dest[low, high). On entry src and dest hold the same positions.
+     */
+    private static void mergeSort(final int[] src, final int[] dest, final int low, final int high, final long[] keys) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                final int position = dest[i];
+                final long key = keys[position];
+                int j = i;
+                for (; j > low && keys[dest[j - 1]] > key; j--) {
+                    dest[j] = dest[j - 1];
+                }
+                dest[j] = position;
+            }
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, keys);
+        mergeSort(dest, src, mid, high, keys);
+        merge(src, dest, low, mid, high, keys);
+    }
+
+    private static void merge(final int[] src, final int[] dest, final int low, final int mid, final int high, final long[] keys) {
+        if (keys[src[mid - 1]] <= keys[src[mid]]) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && keys[src[p]] <= keys[src[q]]) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    /**
+     * Sorts dest[low, high). On entry src and dest hold the same positions.
+     */
+    private static void mergeSort(final int[] src, final int[] dest, final int low, final int high, final Positions positions) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            insertionSort(dest, low, high, positions);
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, positions);
+        mergeSort(dest, src, mid, high, positions);
+        merge(src, dest, low, mid, high, positions);
+    }
+
+    private static void insertionSort(final int[] order, final int low, final int high, final Positions positions) {
+        for (int i = low + 1; i < high; i++) {
+            final int position = order[i];
+            int j = i;
+            for (; j > low && positions.compare(order[j - 1], position) > 0; j--) {
+                order[j] = order[j - 1];
+            }
+            order[j] = position;
+        }
+    }
+
+    private static void merge(final int[] src, final int[] dest, final int low, final int mid, final int high, final Positions positions) {
+        if (positions.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && positions.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    /**
+     * Compares two items by their positions, usually looking up keys that
+     * were extracted beforehand
+     */
+    interface Positions {
+        int compare(int a, int b);
+    }
+
+    private static final class IntMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dest, keys;
+        private final int low, high, threshold;
+
+        IntMergeTask(final int[] src, final int[] dest, final int low, final int high, final int[] keys, final int threshold) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.keys = keys;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= threshold) {
+                mergeSort(src, dest, low, high, keys);
+                return;
+            }
+
+            final int mid = (low + high) >>> 1;
+            invokeAll(
+                new IntMergeTask(dest, src, low, mid, keys, threshold),
+                new IntMergeTask(dest, src, mid, high, keys, threshold)
+            );
+            merge(src, dest, low, mid, high, keys);
+        }
+    }
+
+    private static final class LongMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dest;
+        private final long[] keys;
+        private final int low, high, threshold;
+
+        LongMergeTask(final int[] src, final int[] dest, final int low, final int high, final long[] keys, final int threshold) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.keys = keys;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= threshold) {
+                mergeSort(src, dest, low, high, keys);
+                return;
+            }
+
+            final int mid = (low + high) >>> 1;
+            invokeAll(
+                new LongMergeTask(dest, src, low, mid, keys, threshold),
+                new LongMergeTask(dest, src, mid, high, keys, threshold)
+            );
+            merge(src, dest, low, mid, high, keys);
+        }
+    }
+
+    private static final class PositionsMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dest;
+        private final Positions positions;
+        private final int low, high, threshold;
+
+        PositionsMergeTask(final int[] src, final int[] dest, final int low, final int high, final Positions positions, final int threshold) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.positions = positions;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= threshold) {
+                mergeSort(src, dest, low, high, positions);
+                return;
+            }
+
+            final int mid = (low + high) >>> 1;
+            invokeAll(
+                new PositionsMergeTask(dest, src, low, mid, positions, threshold),
+                new PositionsMergeTask(dest, src, mid, high, positions, threshold)
+            );
+            merge(src, dest, low, mid, high, positions);
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package lambda;
+
+/**
+ * A {@link SortStrategy} returning a primitive int key, so sorting by it
+ * does not box
+ */
+public interface IntSortStrategy<T> {
+    public int get(T obj);
+}
+
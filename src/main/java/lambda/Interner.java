@@ -0,0 +1,31 @@
+package lambda;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out one canonical instance per distinct string, so values built
+ * from millions of records share a handful of brand, model or name
+ * strings. Strings are kept as long as the interner is, so use one per
+ * dataset rather than one for the whole application. Thread-safe.
+ */
+public final class Interner {
+
+    private final ConcurrentMap<String,String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * The canonical instance equal to value, null for null
+     */
+    public String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final String canonical = strings.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+}
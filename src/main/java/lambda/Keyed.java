@@ -0,0 +1,21 @@
+package lambda;
+
+/**
+ * An item decorated with its already extracted sort key. Used for
+ * decorate-sort-undecorate so each key is computed only once.
+ */
+final class Keyed<T> {
+
+    final Comparable key;
+    final T item;
+
+    Keyed(final Comparable key, final T item) {
+        this.key = key;
+        this.item = item;
+    }
+
+    @SuppressWarnings("unchecked")
+    int compareTo(final Keyed<T> other) {
+        return key.compareTo(other.key);
+    }
+}
@@ -0,0 +1,10 @@
+package lambda;
+
+/**
+ * A {@link SortStrategy} returning a primitive long key, so sorting by it
+ * does not box
+ */
+public interface LongSortStrategy<T> {
+    public long get(T obj);
+}
+
@@ -0,0 +1,89 @@
+package lambda;
+
+import java.util.Map;
+import java.util.LinkedHashMap;
+
+/**
+ * A {@link SortStrategy} caching the keys of another one. The cache is
+ * identity-keyed, bounded and evicts the least recently used entries.
+ * It can be shared between threads.
+ *
+ * @see SortStrategy#memoized(SortStrategy, int)
+ */
+public final class MemoizedSortStrategy<T,R> implements SortStrategy<T,R> {
+
+    private final SortStrategy<T,R> strategy;
+    private final Map<Identity,R> keys;
+    private long hits;
+    private long misses;
+
+    MemoizedSortStrategy(final SortStrategy<T,R> strategy, final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+
+        this.strategy = strategy;
+        this.keys = new LinkedHashMap<Identity,R>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Identity,R> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public R get(final T obj) {
+        final Identity identity = new Identity(obj);
+        synchronized (this) {
+            final R key = keys.get(identity);
+            if (key != null || keys.containsKey(identity)) {
+                hits++;
+                return key;
+            }
+        }
+
+        // computed outside of the lock, a racing thread may compute it too
+        final R key = strategy.get(obj);
+        synchronized (this) {
+            misses++;
+            keys.put(identity, key);
+        }
+
+        return key;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    public synchronized void clear() {
+        keys.clear();
+    }
+
+    private static final class Identity {
+
+        private final Object item;
+
+        Identity(final Object item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Identity && ((Identity) other).item == item;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package lambda;
+
+/**
+ * Where items without a key end up in a sorted list
+ */
+public enum NullPolicy {
+    FIRST,
+    LAST
+}
@@ -0,0 +1,201 @@
+package lambda;
+
+import java.util.Arrays;
+
+/**
+ * Stable linear-time sort of item positions by primitive keys. Keys that
+ * span a range smaller than the number of items are counting sorted, the
+ * rest are LSD radix sorted a byte at a time, only over the bytes needed to
+ * represent the range.
+ */
+final class RadixSort {
+
+    /**
+     * Below this size a merge sort is just as fast
+     */
+    static final int MIN_LENGTH = 1 << 10;
+
+    private static final int RADIX = 256;
+    private static final int MAX_AUTO_BITS = 32;
+
+    private RadixSort() {}
+
+    /**
+     * Whether radix sorting the keys should beat a comparison sort
+     */
+    static boolean suits(final int[] keys) {
+        return keys.length >= MIN_LENGTH;
+    }
+
+    /**
+     * Whether radix sorting the keys should beat a comparison sort
+     */
+    static boolean suits(final long[] keys) {
+        if (keys.length < MIN_LENGTH) {
+            return false;
+        }
+
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (long key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+
+        return bits(max - min) <= MAX_AUTO_BITS;
+    }
+
+    /**
+     * Returns the positions of the given keys in ascending key order
+     */
+    static int[] sort(final int[] keys) {
+        final int length = keys.length;
+        if (length == 0) {
+            return new int[0];
+        }
+
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+
+        final long range = (long) max - min;
+        if (range < length) {
+            return countingSort(keys, min, (int) range + 1);
+        }
+
+        // keys shifted to start at zero, read as unsigned
+        int[] values = new int[length], valuesBuffer = new int[length];
+        int[] order = new int[length], orderBuffer = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = keys[i] - min;
+            order[i] = i;
+        }
+
+        final int[] counts = new int[RADIX + 1];
+        for (int shift = 0; shift < bits(range); shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int value : values) {
+                counts[((value >>> shift) & 0xFF) + 1]++;
+            }
+            if (counts[((values[0] >>> shift) & 0xFF) + 1] == length) {
+                continue;
+            }
+            for (int digit = 1; digit <= RADIX; digit++) {
+                counts[digit] += counts[digit - 1];
+            }
+            for (int i = 0; i < length; i++) {
+                final int target = counts[(values[i] >>> shift) & 0xFF]++;
+                valuesBuffer[target] = values[i];
+                orderBuffer[target] = order[i];
+            }
+
+            final int[] swapValues = values;
+            values = valuesBuffer;
+            valuesBuffer = swapValues;
+            final int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+
+        return order;
+    }
+
+    /**
+     * Returns the positions of the given keys in ascending key order
+     */
+    static int[] sort(final long[] keys) {
+        final int length = keys.length;
+        if (length == 0) {
+            return new int[0];
+        }
+
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (long key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+
+        // the range is unsigned, it may not fit in a long
+        final long range = max - min;
+        if (Long.compareUnsigned(range, length) < 0) {
+            return countingSort(keys, min, (int) range + 1);
+        }
+
+        long[] values = new long[length], valuesBuffer = new long[length];
+        int[] order = new int[length], orderBuffer = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = keys[i] - min;
+            order[i] = i;
+        }
+
+        final int[] counts = new int[RADIX + 1];
+        for (int shift = 0; shift < bits(range); shift += 8) {
+            Arrays.fill(counts, 0);
+            for (long value : values) {
+                counts[(int) ((value >>> shift) & 0xFF) + 1]++;
+            }
+            if (counts[(int) ((values[0] >>> shift) & 0xFF) + 1] == length) {
+                continue;
+            }
+            for (int digit = 1; digit <= RADIX; digit++) {
+                counts[digit] += counts[digit - 1];
+            }
+            for (int i = 0; i < length; i++) {
+                final int target = counts[(int) ((values[i] >>> shift) & 0xFF)]++;
+                valuesBuffer[target] = values[i];
+                orderBuffer[target] = order[i];
+            }
+
+            final long[] swapValues = values;
+            values = valuesBuffer;
+            valuesBuffer = swapValues;
+            final int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+
+        return order;
+    }
+
+    private static int[] countingSort(final int[] keys, final int min, final int range) {
+        final int[] counts = new int[range + 1];
+        for (int key : keys) {
+            counts[key - min + 1]++;
+        }
+        for (int i = 1; i <= range; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        final int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[counts[keys[i] - min]++] = i;
+        }
+
+        return order;
+    }
+
+    private static int[] countingSort(final long[] keys, final long min, final int range) {
+        final int[] counts = new int[range + 1];
+        for (long key : keys) {
+            counts[(int) (key - min) + 1]++;
+        }
+        for (int i = 1; i <= range; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        final int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[counts[(int) (keys[i] - min)]++] = i;
+        }
+
+        return order;
+    }
+
+    /**
+     * Number of bits needed by the given unsigned value
+     */
+    private static int bits(final long unsigned) {
+        return 64 - Long.numberOfLeadingZeros(unsigned);
+    }
+}
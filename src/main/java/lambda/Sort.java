@@ -1,37 +1,550 @@
 package lambda;
 
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.Collections;
+import java.util.Comparator;
+import java.text.Collator;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import metrics.Instrumentation;
+import metrics.Probe;
 
 /**
- * A simply way of sorting a list
- *
+ * A simply way of sorting a list. Every sort works on a private snapshot of
+ * the items and returns an unmodifiable list, instances are immutable and
+ * can be shared between threads.
  */
 public class Sort<T> {
 
+    /**
+     * Below this size parallel sorting is not worth the fork-join overhead
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
     private final List<T> items;
+    private final boolean parallel;
+    private final int parallelThreshold;
+    private final SortEngine engine;
+    private final String tag;
 
-    private Sort(final List<T> items) {
+    private Sort(final List<T> items, final boolean parallel, final int parallelThreshold, final SortEngine engine, final String tag) {
         this.items = items;
+        this.parallel = parallel;
+        this.parallelThreshold = parallelThreshold;
+        this.engine = engine;
+        this.tag = tag;
     }
 
     public static <T> Sort<T> sort(final List<T> items) {
-        return new Sort(items);
+        return new Sort(items, false, DEFAULT_PARALLEL_THRESHOLD, SortEngine.AUTO, "sort");
+    }
+
+    /**
+     * Sorts in the common fork-join pool when there are at least
+     * {@link #DEFAULT_PARALLEL_THRESHOLD} items
+     */
+    public Sort<T> parallel() {
+        return parallel(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts in the common fork-join pool when there are at least
+     * threshold items, sequentially otherwise
+     */
+    public Sort<T> parallel(final int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive: " + threshold);
+        }
+
+        return new Sort(items, true, threshold, engine, tag);
+    }
+
+    /**
+     * Chooses how {@link #byInt(IntSortStrategy)}, {@link #byLong(LongSortStrategy)}
+     * and {@link #byDouble(DoubleSortStrategy)} order their keys. Radix
+     * sorting is always sequential, so with {@link SortEngine#AUTO} a
+     * parallel sort merge sorts inputs above its threshold in parallel.
+     */
+    public Sort<T> using(final SortEngine engine) {
+        return new Sort(items, parallel, parallelThreshold, engine, tag);
+    }
+
+    /**
+     * Name under which sorts are reported when {@link Instrumentation} is
+     * enabled
+     */
+    public Sort<T> tagged(final String tag) {
+        return new Sort(items, parallel, parallelThreshold, engine, tag);
     }
 
     /**
-     * Use Streams instead. This is not thread-safe
+     * Sorts a snapshot of the items and returns it as an unmodifiable list.
+     * The source list is never modified, so the same Sort can be shared
+     * between threads as long as nobody writes to the source while sorting.
      */
     public List<T> by(final SortStrategy<T,Comparable> strategy) {
-        Collections.sort(
-            items,
-            (a, b)-> strategy.get(a).compareTo(strategy.get(b))
-        );
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        sortArray((T[]) snapshot, (a, b)-> strategy.get(a).compareTo(strategy.get(b)), probe);
 
-        return new ArrayList(items);
+        // two keys extracted per comparison
+        return measured(probe, probe == null ? 0 : 2 * probe.comparisons(), view(snapshot));
     }
 
-}
+    /**
+     * Same order as {@link #by(SortStrategy)} but the strategy is invoked
+     * exactly once per item (decorate-sort-undecorate). Worth it when
+     * extracting the key is expensive.
+     */
+    public List<T> byKey(final SortStrategy<T,Comparable> strategy) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final Keyed<T>[] decorated = new Keyed[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            decorated[i] = new Keyed(strategy.get((T) snapshot[i]), snapshot[i]);
+        }
+
+        sortArray(decorated, Keyed::compareTo, probe);
+
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = decorated[i].item;
+        }
+
+        return measured(probe, snapshot.length, view(snapshot));
+    }
+
+    /**
+     * Same order as {@link #byKey(SortStrategy)} without blocking the
+     * caller. The snapshot is taken right away and sorted by one task of the
+     * given executor, which may be a plain thread pool, a
+     * {@link BoundedExecutor} or an executor of virtual threads.
+     *
+     * Cancelling the future stops the sort before its next merge pass.
+     */
+    public CompletableFuture<List<T>> byAsync(final SortStrategy<T,Comparable> strategy, final Executor executor) {
+        return sortAsync(strategy, executor, -1);
+    }
+
+    /**
+     * Same as {@link #byAsync(SortStrategy, Executor)} but the future fails
+     * with a TimeoutException once the timeout, counted from this call, has
+     * passed, even if the sort is still waiting for the executor. A running
+     * sort stops before its next merge pass.
+     */
+    public CompletableFuture<List<T>> byAsync(final SortStrategy<T,Comparable> strategy, final Executor executor, final Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+
+        return sortAsync(strategy, executor, timeout.toNanos());
+    }
+
+    /**
+     * Sorts by a key that may be null, like a car's model, without wrapping
+     * it in an Optional:
+     *
+     * <pre>
+     * sort(cars).byNullable(car -&gt; car.model, NullPolicy.FIRST);
+     * </pre>
+     *
+     * Keys are extracted once per item, in parallel when this sort is
+     * parallel. Items with a null key are set apart in their original order
+     * and only the rest are sorted.
+     */
+    public List<T> byNullable(final SortStrategy<T,Comparable> strategy, final NullPolicy nulls) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final Comparable[] keys = new Comparable[snapshot.length];
+        if (isParallel(snapshot.length)) {
+            Arrays.parallelSetAll(keys, i -> strategy.get((T) snapshot[i]));
+        } else {
+            for (int i = 0; i < snapshot.length; i++) {
+                keys[i] = strategy.get((T) snapshot[i]);
+            }
+        }
 
+        int present = 0;
+        for (Comparable key : keys) {
+            if (key != null) {
+                present++;
+            }
+        }
+
+        // positions of the items with a key first, then those without
+        final int[] positions = new int[snapshot.length];
+        final Comparable[] packed = new Comparable[present];
+        int next = 0;
+        int missing = present;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                packed[next] = keys[i];
+                positions[next++] = i;
+            } else {
+                positions[missing++] = i;
+            }
+        }
+
+        final int[] order = sortPositions(present, (a, b) -> packed[a].compareTo(packed[b]), probe);
+        final int keysFrom = nulls == NullPolicy.FIRST ? snapshot.length - present : 0;
+        final int nullsFrom = nulls == NullPolicy.FIRST ? 0 : present;
+        final Object[] sorted = new Object[snapshot.length];
+        for (int i = 0; i < present; i++) {
+            sorted[keysFrom + i] = snapshot[positions[order[i]]];
+        }
+        for (int i = present; i < snapshot.length; i++) {
+            sorted[nullsFrom + i - present] = snapshot[positions[i]];
+        }
+
+        return measured(probe, snapshot.length, view(sorted));
+    }
+
+    /**
+     * Sorts by several keys. All key columns are extracted once before
+     * sorting.
+     */
+    public List<T> by(final CompositeSortStrategy<T> strategy) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final List<T> sorted = reorder(snapshot, sortPositions(snapshot.length, strategy.compile(snapshot), probe));
+
+        return measured(probe, (long) snapshot.length * strategy.columns(), sorted);
+    }
+
+    /**
+     * Sorts by a string in the order of the given locale, putting null
+     * strings last. Collation keys are computed once per item.
+     */
+    public List<T> byCollation(final SortStrategy<T,String> strategy, final Locale locale) {
+        final Collator collator = Collator.getInstance(locale);
+        return byCollationKeys(strategy, value -> value == null ? null : collator.getCollationKey(value).toByteArray());
+    }
+
+    /**
+     * Same as {@link #byCollation(SortStrategy, Locale)} reusing the keys
+     * kept by the cache, so repeated sorts of the same names are cheaper
+     */
+    public List<T> byCollation(final SortStrategy<T,String> strategy, final CollationKeyCache cache) {
+        return byCollationKeys(strategy, cache::keyOf);
+    }
+
+    private List<T> byCollationKeys(final SortStrategy<T,String> strategy, final Function<String,byte[]> keyOf) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final byte[][] keys = new byte[snapshot.length][];
+        for (int i = 0; i < snapshot.length; i++) {
+            keys[i] = keyOf.apply(strategy.get((T) snapshot[i]));
+        }
+
+        final List<T> sorted = reorder(snapshot, sortPositions(snapshot.length, (a, b) -> {
+            if (keys[a] == null || keys[b] == null) {
+                return keys[a] == keys[b] ? 0 : (keys[a] == null ? 1 : -1);
+            }
+            return CollationKeyCache.compare(keys[a], keys[b]);
+        }, probe));
+
+        return measured(probe, snapshot.length, sorted);
+    }
+
+    /**
+     * Sorts by an int key without boxing it. Keys are extracted once into an
+     * int[] and the positions are sorted by them. Equal keys keep their order.
+     */
+    public List<T> byInt(final IntSortStrategy<T> strategy) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final int[] keys = new int[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            keys[i] = strategy.get((T) snapshot[i]);
+        }
+
+        return measured(probe, snapshot.length, reorder(snapshot, sortKeys(keys)));
+    }
+
+    /**
+     * Sorts by a long key without boxing it
+     *
+     * @see #byInt(IntSortStrategy)
+     */
+    public List<T> byLong(final LongSortStrategy<T> strategy) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final long[] keys = new long[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            keys[i] = strategy.get((T) snapshot[i]);
+        }
+
+        return measured(probe, snapshot.length, reorder(snapshot, sortKeys(keys)));
+    }
+
+    /**
+     * Sorts by a double key without boxing it. The order is the one of
+     * {@link Double#compare(double, double)}
+     *
+     * @see #byInt(IntSortStrategy)
+     */
+    public List<T> byDouble(final DoubleSortStrategy<T> strategy) {
+        final Probe probe = Instrumentation.start(tag, items.size());
+        final Object[] snapshot = items.toArray();
+        final long[] keys = new long[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            keys[i] = IndexSort.sortableBits(strategy.get((T) snapshot[i]));
+        }
+
+        return measured(probe, snapshot.length, reorder(snapshot, sortKeys(keys)));
+    }
+
+    /**
+     * The first k items of {@link #by(SortStrategy)} without sorting the
+     * whole list. Runs in O(n log k) time and keeps only k items around.
+     */
+    public List<T> top(final int k, final SortStrategy<T,Comparable> strategy) {
+        return top(items.iterator(), k, strategy);
+    }
 
+    /**
+     * The last k items of {@link #by(SortStrategy)}, in ascending order
+     *
+     * @see #top(int, SortStrategy)
+     */
+    public List<T> bottom(final int k, final SortStrategy<T,Comparable> strategy) {
+        return bottom(items.iterator(), k, strategy);
+    }
+
+    /**
+     * Ranks the items as they are consumed, so the source never has to be
+     * materialized
+     *
+     * @see #top(int, SortStrategy)
+     */
+    public static <T> List<T> top(final Iterator<T> items, final int k, final SortStrategy<T,Comparable> strategy) {
+        return rank(items, new TopK<T>(k, false), strategy);
+    }
+
+    /**
+     * @see #top(Iterator, int, SortStrategy)
+     */
+    public static <T> List<T> top(final Stream<T> items, final int k, final SortStrategy<T,Comparable> strategy) {
+        return top(items.iterator(), k, strategy);
+    }
+
+    /**
+     * @see #bottom(int, SortStrategy)
+     */
+    public static <T> List<T> bottom(final Iterator<T> items, final int k, final SortStrategy<T,Comparable> strategy) {
+        return rank(items, new TopK<T>(k, true), strategy);
+    }
+
+    /**
+     * @see #bottom(int, SortStrategy)
+     */
+    public static <T> List<T> bottom(final Stream<T> items, final int k, final SortStrategy<T,Comparable> strategy) {
+        return bottom(items.iterator(), k, strategy);
+    }
+
+    private static <T> List<T> rank(final Iterator<T> items, final TopK<T> ranking, final SortStrategy<T,Comparable> strategy) {
+        while (items.hasNext()) {
+            final T item = items.next();
+            ranking.offer(strategy.get(item), item);
+        }
+
+        return ranking.toList();
+    }
+
+    /**
+     * A timeout of -1 means none. The future is failed by a timer at the
+     * deadline, the sort only notices it between merge passes.
+     */
+    private CompletableFuture<List<T>> sortAsync(final SortStrategy<T,Comparable> strategy, final Executor executor, final long timeoutNanos) {
+        final Object[] snapshot = items.toArray();
+        final CompletableFuture<List<T>> sorted = new CompletableFuture<>();
+        if (timeoutNanos == 0) {
+            sorted.completeExceptionally(new TimeoutException("Sort timed out before starting"));
+            return sorted;
+        }
+
+        if (timeoutNanos > 0) {
+            final ScheduledFuture<?> deadline = Timer.INSTANCE.schedule(
+                () -> sorted.completeExceptionally(new TimeoutException("Sort took longer than " + timeoutNanos + "ns")),
+                timeoutNanos,
+                TimeUnit.NANOSECONDS);
+            sorted.whenComplete((result, failure) -> deadline.cancel(false));
+        }
+
+        final BooleanSupplier proceed = () -> !sorted.isDone();
+        try {
+            executor.execute(() -> {
+                try {
+                    // null when the future is already done: cancelled or timed out
+                    final List<T> result = sortInPasses(snapshot, strategy, proceed);
+                    if (result != null) {
+                        sorted.complete(result);
+                    }
+                } catch (Throwable e) {
+                    sorted.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            sorted.completeExceptionally(e);
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Returns null when told to stop
+     */
+    private List<T> sortInPasses(final Object[] snapshot, final SortStrategy<T,Comparable> strategy, final BooleanSupplier proceed) {
+        if (!proceed.getAsBoolean()) {
+            return null;
+        }
+
+        final Probe probe = Instrumentation.start(tag, snapshot.length);
+        final Comparable[] keys = new Comparable[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            keys[i] = strategy.get((T) snapshot[i]);
+        }
+
+        final IndexSort.Positions positions = (a, b) -> keys[a].compareTo(keys[b]);
+        final int[] order = IndexSort.sortInPasses(
+            snapshot.length,
+            probe == null ? positions : countingPositions(positions, probe),
+            proceed);
+
+        return order == null ? null : measured(probe, snapshot.length, reorder(snapshot, order));
+    }
+
+    private boolean isParallel(final int size) {
+        return parallel && size >= parallelThreshold;
+    }
+
+    private <E> void sortArray(final E[] array, final Comparator<? super E> comparator, final Probe probe) {
+        final Comparator<? super E> counted = probe == null ? comparator : countingComparisons(comparator, probe);
+
+        if (isParallel(array.length)) {
+            Arrays.parallelSort(array, counted);
+        } else {
+            Arrays.sort(array, counted);
+        }
+    }
+
+    /**
+     * Whether the keys are radix sorted. AUTO leaves inputs big enough to
+     * sort in parallel to the parallel merge sort, radix sorting is
+     * sequential.
+     */
+    boolean radixSorts(final int[] keys) {
+        return engine == SortEngine.RADIX ||
+            engine == SortEngine.AUTO && !isParallel(keys.length) && RadixSort.suits(keys);
+    }
+
+    boolean radixSorts(final long[] keys) {
+        return engine == SortEngine.RADIX ||
+            engine == SortEngine.AUTO && !isParallel(keys.length) && RadixSort.suits(keys);
+    }
+
+    private int[] sortKeys(final int[] keys) {
+        if (radixSorts(keys)) {
+            return RadixSort.sort(keys);
+        }
+
+        return isParallel(keys.length) ?
+            IndexSort.parallelSort(keys, parallelThreshold) :
+            IndexSort.sort(keys);
+    }
+
+    private int[] sortKeys(final long[] keys) {
+        if (radixSorts(keys)) {
+            return RadixSort.sort(keys);
+        }
+
+        return isParallel(keys.length) ?
+            IndexSort.parallelSort(keys, parallelThreshold) :
+            IndexSort.sort(keys);
+    }
+
+    private int[] sortPositions(final int length, final IndexSort.Positions positions, final Probe probe) {
+        final IndexSort.Positions counted = probe == null ? positions : countingPositions(positions, probe);
+
+        return isParallel(length) ?
+            IndexSort.parallelSort(length, counted, parallelThreshold) :
+            IndexSort.sort(length, counted);
+    }
+
+    private static <E> Comparator<E> countingComparisons(final Comparator<E> comparator, final Probe probe) {
+        probe.countComparisons();
+        return (a, b) -> {
+            probe.compared();
+            return comparator.compare(a, b);
+        };
+    }
+
+    private static IndexSort.Positions countingPositions(final IndexSort.Positions positions, final Probe probe) {
+        probe.countComparisons();
+        return (a, b) -> {
+            probe.compared();
+            return positions.compare(a, b);
+        };
+    }
+
+    /**
+     * Reports the sort when it is being measured. Primitive keys are
+     * compared inline, so their comparisons are not counted.
+     */
+    private static <T> List<T> measured(final Probe probe, final long keyExtractions, final List<T> sorted) {
+        if (probe != null) {
+            probe.keyExtractions(keyExtractions);
+            probe.finish();
+        }
+
+        return sorted;
+    }
+
+    private List<T> reorder(final Object[] snapshot, final int[] order) {
+        final Object[] sorted = new Object[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = snapshot[order[i]];
+        }
+
+        return view(sorted);
+    }
+
+    /**
+     * Wraps the array without copying it. The array must not escape.
+     */
+    private List<T> view(final Object[] sorted) {
+        return Collections.unmodifiableList(Arrays.asList((T[]) sorted));
+    }
+
+    /**
+     * Fails async sorts at their deadline. A single daemon thread, created
+     * on first use.
+     */
+    private static final class Timer {
+
+        static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+                final Thread thread = new Thread(task, "sort-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package lambda;
+
+/**
+ * How {@link Sort} orders primitive keys
+ */
+public enum SortEngine {
+    /**
+     * Radix sort when the input is big and its keys are narrow enough,
+     * comparison sort otherwise. Parallel sorts above their threshold
+     * always use the parallel comparison sort.
+     */
+    AUTO,
+    /**
+     * Always a stable merge sort
+     */
+    COMPARISON,
+    /**
+     * Always a stable counting or LSD radix sort, linear in the number of
+     * items
+     */
+    RADIX
+}
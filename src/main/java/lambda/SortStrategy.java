@@ -5,6 +5,14 @@ package lambda;
  */
 public interface SortStrategy<T,R> {
     public R get(T obj);
-}
 
+    /**
+     * Remembers the keys of up to maxSize items, evicting the least recently
+     * used one. Items are told apart by identity, so the cache keeps working
+     * across re-sorts of the same population.
+     */
+    public static <T,R> MemoizedSortStrategy<T,R> memoized(final SortStrategy<T,R> strategy, final int maxSize) {
+        return new MemoizedSortStrategy<>(strategy, maxSize);
+    }
+}
 
@@ -0,0 +1,286 @@
+package lambda;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Keeps items sorted by a {@link SortStrategy} as they come and go, instead
+ * of sorting the whole list again after every change. It is an order
+ * statistic treap: adding, removing, re-positioning an item whose key
+ * changed and reading by position all cost O(log n).
+ *
+ * Items are told apart by identity and equal keys keep the order in which
+ * items were added. When the key of an item changes, {@link #changed(Object)}
+ * must be called before the view is read again. Not thread-safe.
+ */
+public final class SortedView<T> implements Iterable<T> {
+
+    private final SortStrategy<T,Comparable> strategy;
+    private final Map<T,Node<T>> nodes = new IdentityHashMap<>();
+    private final Random priorities = new Random();
+    private Node<T> root;
+    private long arrivals;
+
+    public SortedView(final SortStrategy<T,Comparable> strategy) {
+        this.strategy = strategy;
+    }
+
+    public static <T> SortedView<T> of(final Collection<T> items, final SortStrategy<T,Comparable> strategy) {
+        final SortedView<T> view = new SortedView<>(strategy);
+        for (T item : items) {
+            view.add(item);
+        }
+        return view;
+    }
+
+    public void add(final T item) {
+        if (nodes.containsKey(item)) {
+            throw new IllegalArgumentException("Item already in the view: " + item);
+        }
+
+        final Node<T> node = new Node<>(item, strategy.get(item), arrivals++, priorities.nextInt());
+        nodes.put(item, node);
+        root = insert(root, node);
+    }
+
+    public boolean remove(final T item) {
+        final Node<T> node = nodes.remove(item);
+        if (node == null) {
+            return false;
+        }
+
+        root = delete(root, node);
+        return true;
+    }
+
+    /**
+     * Moves the item to where its new key belongs
+     */
+    public void changed(final T item) {
+        final Node<T> node = nodes.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("Item not in the view: " + item);
+        }
+
+        root = delete(root, node);
+        node.key = strategy.get(item);
+        node.left = null;
+        node.right = null;
+        node.size = 1;
+        root = insert(root, node);
+    }
+
+    public boolean contains(final T item) {
+        return nodes.containsKey(item);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public T get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+
+        Node<T> node = root;
+        int position = index;
+        while (true) {
+            final int left = size(node.left);
+            if (position < left) {
+                node = node.left;
+            } else if (position == left) {
+                return node.item;
+            } else {
+                position -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    public T first() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    public T last() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    /**
+     * Position of the item in the view or -1 when it is not there
+     */
+    public int indexOf(final T item) {
+        final Node<T> target = nodes.get(item);
+        if (target == null) {
+            return -1;
+        }
+
+        int index = 0;
+        Node<T> node = root;
+        while (node != target) {
+            if (target.compareTo(node) < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return index + size(node.left);
+    }
+
+    /**
+     * The items in [from, to), in O(log n + to - from)
+     */
+    public List<T> range(final int from, final int to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), size: " + size());
+        }
+
+        final Object[] items = new Object[to - from];
+        collect(root, from, to, 0, items);
+        return Collections.unmodifiableList(Arrays.asList((T[]) items));
+    }
+
+    /**
+     * In order, a snapshot of the view as it is now
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return range(0, size()).iterator();
+    }
+
+    /**
+     * Fills items with the nodes in [from, to), offset being the position of
+     * the leftmost node of the subtree
+     */
+    private static <T> void collect(final Node<T> node, final int from, final int to, final int offset, final Object[] items) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+
+        final int position = offset + size(node.left);
+        collect(node.left, from, to, offset, items);
+        if (position >= from && position < to) {
+            items[position - from] = node.item;
+        }
+        collect(node.right, from, to, position + 1, items);
+    }
+
+    private static <T> Node<T> insert(final Node<T> tree, final Node<T> node) {
+        if (tree == null) {
+            return node;
+        }
+
+        if (node.compareTo(tree) < 0) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                return rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                return rotateLeft(tree);
+            }
+        }
+
+        tree.size++;
+        return tree;
+    }
+
+    private static <T> Node<T> delete(final Node<T> tree, final Node<T> node) {
+        if (tree == node) {
+            return join(tree.left, tree.right);
+        }
+
+        if (node.compareTo(tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+
+        tree.size--;
+        return tree;
+    }
+
+    private static <T> Node<T> join(final Node<T> left, final Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = join(left.right, right);
+            left.size = 1 + size(left.left) + size(left.right);
+            return left;
+        }
+
+        right.left = join(left, right.left);
+        right.size = 1 + size(right.left) + size(right.right);
+        return right;
+    }
+
+    private static <T> Node<T> rotateRight(final Node<T> tree) {
+        final Node<T> left = tree.left;
+        tree.left = left.right;
+        left.right = tree;
+        tree.size = 1 + size(tree.left) + size(tree.right);
+        left.size = 1 + size(left.left) + tree.size;
+        return left;
+    }
+
+    private static <T> Node<T> rotateLeft(final Node<T> tree) {
+        final Node<T> right = tree.right;
+        tree.right = right.left;
+        right.left = tree;
+        tree.size = 1 + size(tree.left) + size(tree.right);
+        right.size = 1 + tree.size + size(right.right);
+        return right;
+    }
+
+    private static int size(final Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+
+        final T item;
+        final long arrival;
+        final int priority;
+        Comparable key;
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(final T item, final Comparable key, final long arrival, final int priority) {
+            this.item = item;
+            this.key = key;
+            this.arrival = arrival;
+            this.priority = priority;
+        }
+
+        @SuppressWarnings("unchecked")
+        int compareTo(final Node<T> other) {
+            final int comparison = key.compareTo(other.key);
+            return comparison != 0 ? comparison : Long.compare(arrival, other.arrival);
+        }
+    }
+}
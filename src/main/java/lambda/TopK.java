@@ -0,0 +1,95 @@
+package lambda;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the k smallest or the k greatest items seen so far in a bounded
+ * heap. Equal keys are ranked by arrival, so the smallest k are exactly the
+ * first k items of a stable ascending sort and the greatest k the last k.
+ */
+final class TopK<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private final boolean greatest;
+    private final PriorityQueue<Entry<T>> heap;
+    private long arrivals;
+
+    TopK(final int k, final boolean greatest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+
+        final Comparator<Entry<T>> ascending = Entry::compareTo;
+
+        this.k = k;
+        this.greatest = greatest;
+        // the root is always the entry to evict next. It grows up to k
+        // entries, k may be far more than there are items.
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, INITIAL_CAPACITY)), greatest ? ascending : ascending.reversed());
+    }
+
+    /**
+     * Only allocates when the item makes it into the heap
+     */
+    void offer(final Comparable key, final T item) {
+        final long arrival = arrivals++;
+        if (k == 0) {
+            return;
+        }
+
+        if (heap.size() < k) {
+            heap.add(new Entry(key, arrival, item));
+            return;
+        }
+
+        final int comparison = heap.peek().compareTo(key, arrival);
+        if (greatest ? comparison < 0 : comparison > 0) {
+            heap.poll();
+            heap.add(new Entry(key, arrival, item));
+        }
+    }
+
+    /**
+     * The kept items in ascending order
+     */
+    List<T> toList() {
+        final Entry<T>[] entries = heap.toArray(new Entry[heap.size()]);
+        Arrays.sort(entries, Entry::compareTo);
+
+        final Object[] items = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            items[i] = entries[i].item;
+        }
+
+        return Collections.unmodifiableList(Arrays.asList((T[]) items));
+    }
+
+    private static final class Entry<T> {
+
+        final Comparable key;
+        final long arrival;
+        final T item;
+
+        Entry(final Comparable key, final long arrival, final T item) {
+            this.key = key;
+            this.arrival = arrival;
+            this.item = item;
+        }
+
+        int compareTo(final Entry<T> other) {
+            return compareTo(other.key, other.arrival);
+        }
+
+        @SuppressWarnings("unchecked")
+        int compareTo(final Comparable otherKey, final long otherArrival) {
+            final int comparison = key.compareTo(otherKey);
+            return comparison != 0 ? comparison : Long.compare(arrival, otherArrival);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package lambda;
+
+/**
+ * How author years are kept as a primitive int, in memory and in files.
+ * {@link #MISSING} is reserved for an author without a year, so an actual
+ * year of Integer.MIN_VALUE is rejected instead of becoming missing.
+ */
+public final class Years {
+
+    /**
+     * Stored in place of a missing year
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private Years() {}
+
+    /**
+     * The year as a primitive, {@link #MISSING} for null
+     */
+    public static int of(final Integer year) {
+        if (year == null) {
+            return MISSING;
+        }
+        if (year == MISSING) {
+            throw new IllegalArgumentException("Year " + MISSING + " is reserved for a missing year");
+        }
+        return year;
+    }
+
+    /**
+     * The year back as an Integer, null for {@link #MISSING}
+     */
+    public static Integer boxed(final int year) {
+        return year == MISSING ? null : year;
+    }
+}
@@ -0,0 +1,69 @@
+package metrics;
+
+/**
+ * What one instrumented call did. Figures that could not be measured are
+ * -1.
+ */
+public final class Measurement {
+
+    private final String tag;
+    private final long inputSize;
+    private final long comparisons;
+    private final long keyExtractions;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+
+    public Measurement(
+        final String tag,
+        final long inputSize,
+        final long comparisons,
+        final long keyExtractions,
+        final long elapsedNanos,
+        final long allocatedBytes) {
+
+        this.tag = tag;
+        this.inputSize = inputSize;
+        this.comparisons = comparisons;
+        this.keyExtractions = keyExtractions;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public long getInputSize() {
+        return inputSize;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getKeyExtractions() {
+        return keyExtractions;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Bytes allocated by the calling thread, work done in other threads
+     * (like parallel sorts) is not included
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return tag +
+            " inputSize=" + inputSize +
+            " comparisons=" + comparisons +
+            " keyExtractions=" + keyExtractions +
+            " elapsedNanos=" + elapsedNanos +
+            " allocatedBytes=" + allocatedBytes;
+    }
+}
@@ -0,0 +1,9 @@
+package metrics;
+
+/**
+ * Where measurements go once {@link Instrumentation} is enabled.
+ * Implementations are called from any thread.
+ */
+public interface MetricsSink {
+    public void record(Measurement measurement);
+}
@@ -0,0 +1,62 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures one call, from {@link Instrumentation#start(String, long)} to
+ * {@link #finish()}. Comparisons may be counted from several threads.
+ */
+public final class Probe {
+
+    private final MetricsSink sink;
+    private final String tag;
+    private final long inputSize;
+    private final Thread thread;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final LongAdder comparisons = new LongAdder();
+    private volatile boolean countingComparisons;
+    private volatile long keyExtractions = -1;
+
+    Probe(final MetricsSink sink, final String tag, final long inputSize) {
+        this.sink = sink;
+        this.tag = tag;
+        this.inputSize = inputSize;
+        this.thread = Thread.currentThread();
+        this.startAllocatedBytes = Instrumentation.allocatedBytes();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Announces that every comparison will be reported through
+     * {@link #compared()}. Otherwise comparisons are recorded as unknown.
+     */
+    public void countComparisons() {
+        countingComparisons = true;
+    }
+
+    public void compared() {
+        comparisons.increment();
+    }
+
+    public long comparisons() {
+        return countingComparisons ? comparisons.sum() : -1;
+    }
+
+    public void keyExtractions(final long keyExtractions) {
+        this.keyExtractions = keyExtractions;
+    }
+
+    /**
+     * Hands the measurement to the sink. Must be called from the thread
+     * that started the probe.
+     */
+    public void finish() {
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long allocatedBytes = startAllocatedBytes < 0 || thread != Thread.currentThread() ?
+            -1 :
+            Instrumentation.allocatedBytes() - startAllocatedBytes;
+
+        sink.record(new Measurement(tag, inputSize, comparisons(), keyExtractions, elapsedNanos, allocatedBytes));
+    }
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs every measurement at debug level
+ */
+public final class Slf4jMetricsSink implements MetricsSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Slf4jMetricsSink.class);
+
+    @Override
+    public void record(final Measurement measurement) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                "{} inputSize={} comparisons={} keyExtractions={} elapsedNanos={} allocatedBytes={}",
+                measurement.getTag(),
+                measurement.getInputSize(),
+                measurement.getComparisons(),
+                measurement.getKeyExtractions(),
+                measurement.getElapsedNanos(),
+                measurement.getAllocatedBytes()
+            );
+        }
+    }
+}
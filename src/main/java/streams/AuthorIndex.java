@@ -0,0 +1,223 @@
+package streams;
+
+import java.util.Arrays;
+
+/**
+ * Authors by name, like {@code toMap(Author::getName, Author::getYear, merge)}
+ * but duplicate names are merged by a {@link Merge} policy over primitive
+ * years instead of throwing or boxing. Names are kept in an open addressing
+ * table sized up front, so loading as many authors as expected never
+ * rehashes. Names must not be null. Not thread-safe.
+ *
+ * Only the merged year and the number of authors are kept per name, not
+ * the authors themselves, so nothing is boxed or allocated per author.
+ */
+public final class AuthorIndex {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Merge merge;
+    private String[] names;
+    private int[] hashes;
+    private long[] years;
+    private long[] counts;
+    private int size;
+    private long collisions;
+
+    public AuthorIndex(final Merge merge) {
+        this(DEFAULT_CAPACITY, merge);
+    }
+
+    /**
+     * An index holding up to expectedSize names without rehashing
+     */
+    public AuthorIndex(final int expectedSize, final Merge merge) {
+        this.merge = merge;
+        allocate(OpenAddressing.capacityFor(expectedSize));
+    }
+
+    public void accept(final String name, final int year) {
+        merge(name, year, 1);
+    }
+
+    /**
+     * The merged year of the name or 0 when there is no such name. A merged
+     * year can be 0 too, with {@link Merge#SUM} for instance, so check
+     * {@link #containsName(String)} when the name may be missing.
+     */
+    public long getYear(final String name) {
+        final int slot = find(name);
+        return slot < 0 ? 0 : years[slot];
+    }
+
+    /**
+     * How many authors were merged under the name
+     */
+    public long getCount(final String name) {
+        final int slot = find(name);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    public boolean containsName(final String name) {
+        return find(name) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Occupied slots probed past while adding names. Stays close to zero
+     * for well spread names.
+     */
+    public long collisions() {
+        return collisions;
+    }
+
+    /**
+     * Merges the other index into this one as if its authors came after
+     * the authors of this index
+     */
+    public AuthorIndex addAll(final AuthorIndex other) {
+        for (int slot = 0; slot < other.names.length; slot++) {
+            if (other.names[slot] != null) {
+                merge(other.names[slot], other.years[slot], other.counts[slot]);
+            }
+        }
+        collisions += other.collisions;
+        return this;
+    }
+
+    /**
+     * The names in ascending order
+     */
+    public String[] names() {
+        final String[] result = new String[size];
+        int i = 0;
+        for (String name : names) {
+            if (name != null) {
+                result[i++] = name;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        for (String name : names()) {
+            builder.append(builder.length() > 1 ? ", " : "").append(name).append('=').append(getYear(name));
+        }
+        return builder.append('}').toString();
+    }
+
+    private void merge(final String name, final long year, final long count) {
+        final int hash = name.hashCode();
+        final int mask = names.length - 1;
+        int slot = OpenAddressing.hash(hash) & mask;
+        int probes = 0;
+        while (names[slot] != null) {
+            if (hashes[slot] == hash && names[slot].equals(name)) {
+                years[slot] = merge.apply(years[slot], year);
+                counts[slot] += count;
+                collisions += probes;
+                return;
+            }
+            probes++;
+            slot = (slot + 1) & mask;
+        }
+
+        // the probes of a table about to be replaced are not counted
+        if (OpenAddressing.isFull(size + 1, names.length)) {
+            rehash();
+            merge(name, year, count);
+            return;
+        }
+
+        collisions += probes;
+        names[slot] = name;
+        hashes[slot] = hash;
+        years[slot] = year;
+        counts[slot] = count;
+        size++;
+    }
+
+    private int find(final String name) {
+        final int hash = name.hashCode();
+        final int mask = names.length - 1;
+        int slot = OpenAddressing.hash(hash) & mask;
+        while (names[slot] != null) {
+            if (hashes[slot] == hash && names[slot].equals(name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(final int capacity) {
+        names = new String[capacity];
+        hashes = new int[capacity];
+        years = new long[capacity];
+        counts = new long[capacity];
+    }
+
+    private void rehash() {
+        final String[] oldNames = names;
+        final int[] oldHashes = hashes;
+        final long[] oldYears = years;
+        final long[] oldCounts = counts;
+
+        allocate(OpenAddressing.grow(names.length));
+        final int mask = names.length - 1;
+        for (int slot = 0; slot < oldNames.length; slot++) {
+            if (oldNames[slot] != null) {
+                int target = OpenAddressing.hash(oldHashes[slot]) & mask;
+                while (names[target] != null) {
+                    target = (target + 1) & mask;
+                }
+                names[target] = oldNames[slot];
+                hashes[target] = oldHashes[slot];
+                years[target] = oldYears[slot];
+                counts[target] = oldCounts[slot];
+            }
+        }
+    }
+
+    /**
+     * What to keep when a name shows up again
+     */
+    public enum Merge {
+
+        KEEP_FIRST {
+            @Override
+            long apply(final long existing, final long year) {
+                return existing;
+            }
+        },
+
+        KEEP_MAX {
+            @Override
+            long apply(final long existing, final long year) {
+                return Math.max(existing, year);
+            }
+        },
+
+        /**
+         * Years are added up as longs, they do not overflow
+         */
+        SUM {
+            @Override
+            long apply(final long existing, final long year) {
+                return existing + year;
+            }
+        };
+
+        abstract long apply(long existing, long year);
+    }
+}
@@ -0,0 +1,43 @@
+package streams;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Direct buffers of one size kept for reuse, so writing does not allocate
+ * native memory per chunk. When the pool is empty a new buffer is
+ * allocated. At most maxRetained buffers are kept. Thread-safe.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxRetained;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger retained = new AtomicInteger();
+
+    BufferPool(final int bufferSize, final int maxRetained) {
+        this.bufferSize = bufferSize;
+        this.maxRetained = maxRetained;
+    }
+
+    ByteBuffer acquire() {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        retained.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    void release(final ByteBuffer buffer) {
+        if (retained.incrementAndGet() <= maxRetained) {
+            buffers.add(buffer);
+        } else {
+            retained.decrementAndGet();
+        }
+    }
+}
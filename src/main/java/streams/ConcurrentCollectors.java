@@ -0,0 +1,105 @@
+package streams;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Grouping collectors for parallel streams that every worker updates in
+ * place. There is a single {@link ConcurrentHashMap} and a striped
+ * {@link LongAdder} or {@link LongAccumulator} per key, so there are no
+ * per-worker maps to merge at the end, which is what dominates
+ * {@code groupingBy} with many distinct keys.
+ */
+public final class ConcurrentCollectors {
+
+    private ConcurrentCollectors() {}
+
+    /**
+     * {@code groupingBy(classifier, counting())} for parallel streams
+     */
+    public static <T,K> Collector<T,?,Map<K,Long>> countingConcurrent(final Function<? super T,? extends K> classifier) {
+        return Collector.of(
+            ConcurrentHashMap<K,LongAdder>::new,
+            (counts, item) -> adder(counts, classifier.apply(item)).increment(),
+            ConcurrentCollectors::addAll,
+            ConcurrentCollectors::toLongs,
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * {@code groupingBy(classifier, summingLong(mapper))} for parallel
+     * streams
+     */
+    public static <T,K> Collector<T,?,Map<K,Long>> summingConcurrent(final Function<? super T,? extends K> classifier, final ToLongFunction<? super T> mapper) {
+        return Collector.of(
+            ConcurrentHashMap<K,LongAdder>::new,
+            (sums, item) -> adder(sums, classifier.apply(item)).add(mapper.applyAsLong(item)),
+            ConcurrentCollectors::addAll,
+            ConcurrentCollectors::toLongs,
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * {@code groupingBy(classifier, reducing(identity, mapper, operator))}
+     * for parallel streams. The operator is applied in no particular order,
+     * so it must be associative and commutative, like max or sum.
+     */
+    public static <T,K> Collector<T,?,Map<K,Long>> reducingConcurrent(
+        final Function<? super T,? extends K> classifier,
+        final long identity,
+        final ToLongFunction<? super T> mapper,
+        final LongBinaryOperator operator) {
+
+        return Collector.<T,ConcurrentMap<K,LongAccumulator>,Map<K,Long>>of(
+            ConcurrentHashMap::new,
+            (reductions, item) -> accumulator(reductions, classifier.apply(item), operator, identity).accumulate(mapper.applyAsLong(item)),
+            (left, right) -> {
+                right.forEach((key, reduction) -> accumulator(left, key, operator, identity).accumulate(reduction.get()));
+                return left;
+            },
+            reductions -> {
+                final Map<K,Long> result = new HashMap<>(reductions.size() * 4 / 3 + 1);
+                reductions.forEach((key, reduction) -> result.put(key, reduction.get()));
+                return result;
+            },
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    private static <K> LongAdder adder(final ConcurrentMap<K,LongAdder> adders, final K key) {
+        // get first, computeIfAbsent locks the bin even when the key is there
+        final LongAdder adder = adders.get(key);
+        return adder != null ? adder : adders.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static <K> LongAccumulator accumulator(final ConcurrentMap<K,LongAccumulator> accumulators, final K key, final LongBinaryOperator operator, final long identity) {
+        final LongAccumulator accumulator = accumulators.get(key);
+        return accumulator != null ?
+            accumulator :
+            accumulators.computeIfAbsent(key, k -> new LongAccumulator(operator, identity));
+    }
+
+    private static <K> ConcurrentHashMap<K,LongAdder> addAll(final ConcurrentHashMap<K,LongAdder> left, final ConcurrentHashMap<K,LongAdder> right) {
+        right.forEach((key, adder) -> adder(left, key).add(adder.sum()));
+        return left;
+    }
+
+    private static <K> Map<K,Long> toLongs(final ConcurrentHashMap<K,LongAdder> adders) {
+        final Map<K,Long> result = new HashMap<>(adders.size() * 4 / 3 + 1);
+        adders.forEach((key, adder) -> result.put(key, adder.sum()));
+        return result;
+    }
+}
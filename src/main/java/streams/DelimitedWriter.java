@@ -0,0 +1,340 @@
+package streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import metrics.Instrumentation;
+import metrics.Measurement;
+
+/**
+ * Writes items as delimited text straight to a channel, what
+ * {@code map(Car::toString).collect(joining("|"))} does but without
+ * building the whole text in memory:
+ *
+ * <pre>
+ * try (FileChannel channel = FileChannel.open(path, CREATE, WRITE)) {
+ *     DelimitedWriter.of(Car::toString).delimiter("|").write(cars.stream(), channel);
+ * }
+ * </pre>
+ *
+ * Records are encoded one by one into pooled direct buffers, which are
+ * written out as they fill. With {@link #parallel(Executor, int)} records
+ * are encoded in chunks by the executor while earlier chunks are written,
+ * in order, and only a few chunks are in flight at once. Like joining,
+ * null texts are written as "null". Charsets are expected to be stateless,
+ * like UTF-8 or ISO-8859-1. Instances are immutable and can be
+ * shared between threads.
+ */
+public final class DelimitedWriter<T> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    private final Function<? super T,? extends CharSequence> format;
+    private final String delimiter;
+    private final Charset charset;
+    private final int bufferSize;
+    private final int chunkSize;
+    private final Executor executor;
+    private final int parallelism;
+    private final BufferPool buffers;
+
+    private DelimitedWriter(
+        final Function<? super T,? extends CharSequence> format,
+        final String delimiter,
+        final Charset charset,
+        final int bufferSize,
+        final int chunkSize,
+        final Executor executor,
+        final int parallelism) {
+
+        this.format = format;
+        this.delimiter = delimiter;
+        this.charset = charset;
+        this.bufferSize = bufferSize;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.buffers = new BufferPool(bufferSize, 4 * parallelism);
+    }
+
+    public static <T> DelimitedWriter<T> of(final Function<? super T,? extends CharSequence> format) {
+        return new DelimitedWriter<>(format, ",", StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_SIZE, null, 1);
+    }
+
+    public DelimitedWriter<T> delimiter(final CharSequence delimiter) {
+        return new DelimitedWriter<>(format, delimiter.toString(), charset, bufferSize, chunkSize, executor, parallelism);
+    }
+
+    /**
+     * UTF-8 by default. Characters the charset can not encode are replaced,
+     * as {@link String#getBytes(Charset)} does.
+     */
+    public DelimitedWriter<T> charset(final Charset charset) {
+        return new DelimitedWriter<>(format, delimiter, charset, bufferSize, chunkSize, executor, parallelism);
+    }
+
+    /**
+     * Size in bytes of every pooled direct buffer
+     */
+    public DelimitedWriter<T> bufferSize(final int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16: " + bufferSize);
+        }
+        return new DelimitedWriter<>(format, delimiter, charset, bufferSize, chunkSize, executor, parallelism);
+    }
+
+    /**
+     * How many records are encoded together when encoding in parallel
+     */
+    public DelimitedWriter<T> chunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        return new DelimitedWriter<>(format, delimiter, charset, bufferSize, chunkSize, executor, parallelism);
+    }
+
+    /**
+     * Encodes up to parallelism chunks at once in the executor. The output is
+     * the same as when writing sequentially.
+     */
+    public DelimitedWriter<T> parallel(final Executor executor, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        return new DelimitedWriter<>(format, delimiter, charset, bufferSize, chunkSize, executor, parallelism);
+    }
+
+    public Statistics write(final Stream<T> items, final WritableByteChannel channel) throws IOException {
+        return write(items.iterator(), channel);
+    }
+
+    /**
+     * Writes every item, in order. The channel is left open.
+     */
+    public Statistics write(final Iterator<T> items, final WritableByteChannel channel) throws IOException {
+        final Statistics statistics = new Statistics();
+        final long start = System.nanoTime();
+
+        try {
+            if (executor == null) {
+                writeSequentially(items, channel, statistics);
+            } else {
+                writeInChunks(items, channel, statistics);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        statistics.elapsedNanos = System.nanoTime() - start;
+        Instrumentation.record(new Measurement("write", statistics.records, -1, -1, statistics.elapsedNanos, -1));
+        return statistics;
+    }
+
+    private void writeSequentially(final Iterator<T> items, final WritableByteChannel channel, final Statistics statistics) throws IOException {
+        final CharsetEncoder encoder = encoder();
+        ByteBuffer buffer = buffers.acquire();
+        try {
+            while (items.hasNext()) {
+                final CharSequence text = text(items.next());
+                if (statistics.records++ > 0) {
+                    buffer = encode(delimiter, encoder, buffer, channel, statistics);
+                }
+                buffer = encode(text, encoder, buffer, channel, statistics);
+            }
+            drain(buffer, channel, statistics);
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    /**
+     * Reads chunks of records while the executor encodes the previous ones,
+     * writing them in the order they were read
+     */
+    private void writeInChunks(final Iterator<T> items, final WritableByteChannel channel, final Statistics statistics) throws IOException {
+        final Deque<CompletableFuture<List<ByteBuffer>>> encoding = new ArrayDeque<>();
+        try {
+            while (items.hasNext()) {
+                final List<T> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && items.hasNext()) {
+                    chunk.add(items.next());
+                }
+
+                final boolean first = statistics.records == 0;
+                statistics.records += chunk.size();
+                encoding.add(CompletableFuture.supplyAsync(() -> encode(chunk, first), executor));
+
+                if (encoding.size() >= parallelism) {
+                    writeAll(join(encoding.poll()), channel, statistics);
+                }
+            }
+
+            while (!encoding.isEmpty()) {
+                writeAll(join(encoding.poll()), channel, statistics);
+            }
+        } finally {
+            // chunks already encoded, or still encoding, give their buffers back once done
+            for (CompletableFuture<List<ByteBuffer>> pending : encoding) {
+                pending.cancel(false);
+                pending.thenAccept(encoded -> encoded.forEach(buffers::release));
+            }
+        }
+    }
+
+    /**
+     * Encodes a chunk into as many pooled buffers as it takes
+     */
+    private List<ByteBuffer> encode(final List<T> chunk, final boolean first) {
+        final CharsetEncoder encoder = encoder();
+        final List<ByteBuffer> encoded = new ArrayList<>();
+        ByteBuffer buffer = buffers.acquire();
+        encoded.add(buffer);
+
+        try {
+            for (int i = 0; i < chunk.size(); i++) {
+                final CharSequence text = text(chunk.get(i));
+                if (i > 0 || !first) {
+                    buffer = encode(CharBuffer.wrap(delimiter), encoder, buffer, encoded);
+                }
+                buffer = encode(CharBuffer.wrap(text), encoder, buffer, encoded);
+            }
+        } catch (RuntimeException | Error e) {
+            encoded.forEach(buffers::release);
+            throw e;
+        }
+        return encoded;
+    }
+
+    /**
+     * Each text is encoded as a whole input, so a malformed end is replaced
+     * instead of being held back for more input
+     */
+    private ByteBuffer encode(final CharBuffer chars, final CharsetEncoder encoder, ByteBuffer buffer, final List<ByteBuffer> encoded) {
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            buffer = buffers.acquire();
+            encoded.add(buffer);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            buffer = buffers.acquire();
+            encoded.add(buffer);
+        }
+        encoder.reset();
+        return buffer;
+    }
+
+    /**
+     * Encodes the text into the buffer, writing the buffer out whenever it
+     * is full, and returns the buffer to go on with
+     */
+    private ByteBuffer encode(
+        final CharSequence text,
+        final CharsetEncoder encoder,
+        final ByteBuffer buffer,
+        final WritableByteChannel channel,
+        final Statistics statistics) throws IOException {
+
+        final CharBuffer chars = CharBuffer.wrap(text);
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            drain(buffer, channel, statistics);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain(buffer, channel, statistics);
+        }
+        encoder.reset();
+        return buffer;
+    }
+
+    private void writeAll(final List<ByteBuffer> encoded, final WritableByteChannel channel, final Statistics statistics) throws IOException {
+        try {
+            for (ByteBuffer buffer : encoded) {
+                drain(buffer, channel, statistics);
+            }
+        } finally {
+            for (ByteBuffer buffer : encoded) {
+                buffers.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes out what the buffer holds and clears it
+     */
+    private static void drain(final ByteBuffer buffer, final WritableByteChannel channel, final Statistics statistics) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            statistics.bytes += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static <R> R join(final CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private CharSequence text(final T item) {
+        final CharSequence text = format.apply(item);
+        return text == null ? "null" : text;
+    }
+
+    private CharsetEncoder encoder() {
+        return charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * What a write did
+     */
+    public static final class Statistics {
+
+        private long records;
+        private long bytes;
+        private long elapsedNanos;
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : bytes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "records=" + records + ", bytes=" + bytes + ", elapsedNanos=" + elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package streams;
+
+/**
+ * Approximate count of distinct items in fixed memory, a HyperLogLog
+ * sketch of 2^precision one byte registers. Each item is hashed to 64 bits,
+ * the first precision bits pick a register and the register keeps the
+ * longest run of leading zeros seen in the rest.
+ *
+ * The standard error is 1.04 / sqrt(2^precision), 0.8% for the default
+ * precision of 14 (16KB). Sketches of the same precision can be merged.
+ * Not thread-safe.
+ */
+public final class DistinctCountSketch {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public DistinctCountSketch() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public DistinctCountSketch(final int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be in [4, 18]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Strings are hashed from their chars, other items from their hashCode,
+     * so beyond hundreds of millions of distinct non-string items 32 bit
+     * hash collisions start to show
+     */
+    public void accept(final Object item) {
+        acceptHash(item instanceof CharSequence ? hash((CharSequence) item) : mix(item == null ? 0 : item.hashCode()));
+    }
+
+    /**
+     * Adds an item by a well spread 64 bit hash of it
+     */
+    public void acceptHash(final long hash) {
+        final int register = (int) (hash >>> (64 - precision));
+        // the marker bit bounds the run of zeros
+        final long rest = (hash << precision) | (1L << (precision - 1));
+        final byte zeros = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (zeros > registers[register]) {
+            registers[register] = zeros;
+        }
+    }
+
+    public DistinctCountSketch merge(final DistinctCountSketch other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Precisions differ: " + precision + " and " + other.precision);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        final int m = registers.length;
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+
+        final double alpha = 0.7213 / (1 + 1.079 / m);
+        final double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && empty > 0) {
+            // few items, linear counting is more accurate
+            return Math.round(m * Math.log((double) m / empty));
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static long hash(final CharSequence chars) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < chars.length(); i++) {
+            hash = (hash ^ chars.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The murmur3 finalizer, spreads every input bit over the whole hash
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,327 @@
+package streams;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sequence of doubles computed from its index, the primitive and
+ * splittable counterpart of {@code Stream.iterate(1.0, p -> p + 2).limit(20)}
+ * or {@code Stream.generate(Math::random).limit(20)}:
+ *
+ * <pre>
+ * double sum = DoubleSequence.arithmetic(1.0, 2.0, 20).sum();
+ * double[] noise = DoubleSequence.random(42, 1000).map(2.0, -1.0).toArray();
+ * </pre>
+ *
+ * Values are produced in blocks of {@link #BLOCK_SIZE} into a double[] and
+ * {@link #map(double, double)} is applied to whole blocks, so bulk
+ * operations run tight loops without a lambda call per value. Every value
+ * only depends on its index, so streams split evenly and parallel streams
+ * see exactly the same values as sequential ones. Instances are immutable.
+ */
+public final class DoubleSequence {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Generator generator;
+    private final long size;
+    private final double scale;
+    private final double offset;
+
+    private DoubleSequence(final Generator generator, final long size, final double scale, final double offset) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+
+        this.generator = generator;
+        this.size = size;
+        this.scale = scale;
+        this.offset = offset;
+    }
+
+    /**
+     * first, first + step, first + 2 * step...
+     */
+    public static DoubleSequence arithmetic(final double first, final double step, final long size) {
+        return new DoubleSequence(new Arithmetic(first, step), size, 1.0, 0.0);
+    }
+
+    /**
+     * first, first * ratio, first * ratio^2...
+     */
+    public static DoubleSequence geometric(final double first, final double ratio, final long size) {
+        return new DoubleSequence(new Geometric(first, ratio), size, 1.0, 0.0);
+    }
+
+    /**
+     * Uniform values in [0, 1). The same seed always gives the same values,
+     * however the sequence is split.
+     */
+    public static DoubleSequence random(final long seed, final long size) {
+        return new DoubleSequence(new Random(seed), size, 1.0, 0.0);
+    }
+
+    /**
+     * The sequence of value * scale + offset, applied block by block
+     */
+    public DoubleSequence map(final double scale, final double offset) {
+        return new DoubleSequence(generator, size, this.scale * scale, this.offset * scale + offset);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public double get(final long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return generator.get(index) * scale + offset;
+    }
+
+    /**
+     * Writes the values from index on into block[0, length)
+     */
+    public void fill(final long index, final double[] block, final int length) {
+        if (index < 0 || index + length > size) {
+            throw new IndexOutOfBoundsException("Range: [" + index + ", " + (index + length) + "), size: " + size);
+        }
+
+        generator.fill(index, block, length);
+        if (scale != 1.0 || offset != 0.0) {
+            for (int i = 0; i < length; i++) {
+                block[i] = block[i] * scale + offset;
+            }
+        }
+    }
+
+    /**
+     * Compensated sum, as {@link DoubleStream#sum()}
+     */
+    public double sum() {
+        final double[] block = new double[(int) Math.min(size, BLOCK_SIZE)];
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (long index = 0; index < size; index += block.length) {
+            final int length = (int) Math.min(block.length, size - index);
+            fill(index, block, length);
+            for (int i = 0; i < length; i++) {
+                final double y = block[i] - compensation;
+                final double t = sum + y;
+                compensation = (t - sum) - y;
+                sum = t;
+            }
+        }
+        return sum;
+    }
+
+    public double[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Sequence too big for an array: " + size);
+        }
+
+        final double[] values = new double[(int) size];
+        final double[] block = new double[(int) Math.min(size, BLOCK_SIZE)];
+        for (int index = 0; index < values.length; index += block.length) {
+            final int length = Math.min(block.length, values.length - index);
+            fill(index, block, length);
+            System.arraycopy(block, 0, values, index, length);
+        }
+        return values;
+    }
+
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    public DoubleStream parallelStream() {
+        return StreamSupport.doubleStream(spliterator(), true);
+    }
+
+    public Spliterator.OfDouble spliterator() {
+        return new Blocks(this, 0, size);
+    }
+
+    /**
+     * The finalizer of SplittableRandom, turns consecutive seeds into
+     * independent looking values
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the values of a sequence, before mapping
+     */
+    private interface Generator {
+
+        double get(long index);
+
+        default void fill(final long index, final double[] block, final int length) {
+            for (int i = 0; i < length; i++) {
+                block[i] = get(index + i);
+            }
+        }
+    }
+
+    private static final class Arithmetic implements Generator {
+
+        private final double first;
+        private final double step;
+
+        Arithmetic(final double first, final double step) {
+            this.first = first;
+            this.step = step;
+        }
+
+        @Override
+        public double get(final long index) {
+            return first + index * step;
+        }
+    }
+
+    private static final class Geometric implements Generator {
+
+        private final double first;
+        private final double ratio;
+
+        Geometric(final double first, final double ratio) {
+            this.first = first;
+            this.ratio = ratio;
+        }
+
+        /**
+         * Every BLOCK_SIZE values start again from pow and the rest are
+         * multiplied from there, so a value only depends on its index and
+         * not on where the sequence was split
+         */
+        @Override
+        public double get(final long index) {
+            final long start = index - index % BLOCK_SIZE;
+            double value = first * Math.pow(ratio, start);
+            for (long i = start; i < index; i++) {
+                value *= ratio;
+            }
+            return value;
+        }
+
+        @Override
+        public void fill(final long index, final double[] block, final int length) {
+            double value = 0.0;
+            for (int i = 0; i < length; i++) {
+                value = i == 0 || (index + i) % BLOCK_SIZE == 0 ? get(index + i) : value * ratio;
+                block[i] = value;
+            }
+        }
+    }
+
+    /**
+     * The value at an index is the mixed seed + (index + 1) * gamma, the same
+     * way SplittableRandom derives its values
+     */
+    private static final class Random implements Generator {
+
+        private final long seed;
+
+        Random(final long seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public double get(final long index) {
+            return (mix(seed + (index + 1) * GAMMA) >>> 11) * 0x1.0p-53;
+        }
+    }
+
+    /**
+     * Hands out the values of [from, to) through a block filled in one go,
+     * values already in the block come before from
+     */
+    private static final class Blocks implements Spliterator.OfDouble {
+
+        private final DoubleSequence sequence;
+        private long from;
+        private final long to;
+        private double[] block;
+        private int position;
+        private int length;
+
+        Blocks(final DoubleSequence sequence, final long from, final long to) {
+            this.sequence = sequence;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(final DoubleConsumer action) {
+            if (position == length) {
+                if (from >= to) {
+                    return false;
+                }
+                if (block == null) {
+                    block = new double[(int) Math.min(to - from, BLOCK_SIZE)];
+                }
+                length = (int) Math.min(block.length, to - from);
+                sequence.fill(from, block, length);
+                from += length;
+                position = 0;
+            }
+
+            action.accept(block[position++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer action) {
+            while (position < length) {
+                action.accept(block[position++]);
+            }
+
+            if (from >= to) {
+                return;
+            }
+            if (block == null) {
+                block = new double[(int) Math.min(to - from, BLOCK_SIZE)];
+            }
+            while (from < to) {
+                final int filled = (int) Math.min(block.length, to - from);
+                sequence.fill(from, block, filled);
+                from += filled;
+                for (int i = 0; i < filled; i++) {
+                    action.accept(block[i]);
+                }
+            }
+        }
+
+        /**
+         * Not split while values of a block are pending, they come first
+         */
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            if (position < length || to - from <= BLOCK_SIZE) {
+                return null;
+            }
+
+            final long mid = (from + to) >>> 1;
+            final Spliterator.OfDouble prefix = new Blocks(sequence, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from + length - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package streams;
+
+import java.util.Arrays;
+
+/**
+ * An int to long hash map with open addressing and linear probing. Neither
+ * keys nor values are ever boxed. Missing keys read as zero. Not
+ * thread-safe.
+ */
+public final class IntLongMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * A map holding up to expectedSize keys without rehashing
+     */
+    public IntLongMap(final int expectedSize) {
+        allocate(OpenAddressing.capacityFor(expectedSize));
+    }
+
+    public long get(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    public boolean containsKey(final int key) {
+        return OpenAddressing.find(key, keys, used) >= 0;
+    }
+
+    public void put(final int key, final long value) {
+        values[slotOf(key)] = value;
+    }
+
+    /**
+     * Adds delta to the value of the given key and returns the result
+     */
+    public long add(final int key, final long delta) {
+        final int slot = slotOf(key);
+        return values[slot] += delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds up the values of the other map into this one
+     */
+    public IntLongMap addAll(final IntLongMap other) {
+        other.forEach(this::add);
+        return this;
+    }
+
+    public void forEach(final Entries entries) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                entries.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * The keys in ascending order
+     */
+    public int[] keys() {
+        final int[] result = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        for (int key : keys()) {
+            builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(get(key));
+        }
+        return builder.append('}').toString();
+    }
+
+    private int slotOf(final int key) {
+        int slot = OpenAddressing.slot(key, keys, used);
+        if (!used[slot]) {
+            if (OpenAddressing.isFull(size + 1, keys.length)) {
+                rehash();
+                slot = OpenAddressing.slot(key, keys, used);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        return slot;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private void rehash() {
+        final int[] oldKeys = keys;
+        final long[] oldValues = values;
+        final boolean[] oldUsed = used;
+
+        allocate(OpenAddressing.grow(keys.length));
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                final int target = OpenAddressing.slot(oldKeys[slot], keys, used);
+                used[target] = true;
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    /**
+     * Receives each key and value of the map
+     */
+    public interface Entries {
+        void accept(int key, long value);
+    }
+}
@@ -0,0 +1,216 @@
+package streams;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The int counterpart of {@link DoubleSequence}: arithmetic progressions,
+ * like {@code Stream.iterate(0, arithmetic)}, and seeded random values,
+ * computed from their index in blocks of {@link DoubleSequence#BLOCK_SIZE}.
+ * Instances are immutable.
+ */
+public final class IntSequence {
+
+    private static final int BLOCK_SIZE = DoubleSequence.BLOCK_SIZE;
+
+    private final long size;
+    private final int first;
+    private final int step;
+    private final long seed;
+    private final int bound;
+
+    private IntSequence(final long size, final int first, final int step, final long seed, final int bound) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+
+        this.size = size;
+        this.first = first;
+        this.step = step;
+        this.seed = seed;
+        this.bound = bound;
+    }
+
+    /**
+     * first, first + step, first + 2 * step... overflowing like int
+     * arithmetic does
+     */
+    public static IntSequence arithmetic(final int first, final int step, final long size) {
+        return new IntSequence(size, first, step, 0, 0);
+    }
+
+    /**
+     * Uniform values in [0, bound). The same seed always gives the same
+     * values, however the sequence is split.
+     */
+    public static IntSequence random(final long seed, final int bound, final long size) {
+        if (bound < 1) {
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        }
+        return new IntSequence(size, 0, 0, seed, bound);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int get(final long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return value(index);
+    }
+
+    /**
+     * Writes the values from index on into block[0, length)
+     */
+    public void fill(final long index, final int[] block, final int length) {
+        if (index < 0 || index + length > size) {
+            throw new IndexOutOfBoundsException("Range: [" + index + ", " + (index + length) + "), size: " + size);
+        }
+
+        if (bound == 0) {
+            int value = value(index);
+            for (int i = 0; i < length; i++) {
+                block[i] = value;
+                value += step;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                block[i] = value(index + i);
+            }
+        }
+    }
+
+    public long sum() {
+        final int[] block = new int[(int) Math.min(size, BLOCK_SIZE)];
+        long sum = 0;
+        for (long index = 0; index < size; index += block.length) {
+            final int length = (int) Math.min(block.length, size - index);
+            fill(index, block, length);
+            for (int i = 0; i < length; i++) {
+                sum += block[i];
+            }
+        }
+        return sum;
+    }
+
+    public int[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Sequence too big for an array: " + size);
+        }
+
+        final int[] values = new int[(int) size];
+        fill(0, values, values.length);
+        return values;
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    public Spliterator.OfInt spliterator() {
+        return new Blocks(this, 0, size);
+    }
+
+    private int value(final long index) {
+        if (bound == 0) {
+            return (int) (first + index * step);
+        }
+
+        final long random = DoubleSequence.mix(seed + (index + 1) * DoubleSequence.GAMMA);
+        return (int) (((random >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Hands out the values of [from, to) through a block filled in one go,
+     * values already in the block come before from
+     */
+    private static final class Blocks implements Spliterator.OfInt {
+
+        private final IntSequence sequence;
+        private long from;
+        private final long to;
+        private int[] block;
+        private int position;
+        private int length;
+
+        Blocks(final IntSequence sequence, final long from, final long to) {
+            this.sequence = sequence;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer action) {
+            if (position == length) {
+                if (from >= to) {
+                    return false;
+                }
+                if (block == null) {
+                    block = new int[(int) Math.min(to - from, BLOCK_SIZE)];
+                }
+                length = (int) Math.min(block.length, to - from);
+                sequence.fill(from, block, length);
+                from += length;
+                position = 0;
+            }
+
+            action.accept(block[position++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer action) {
+            while (position < length) {
+                action.accept(block[position++]);
+            }
+
+            if (from >= to) {
+                return;
+            }
+            if (block == null) {
+                block = new int[(int) Math.min(to - from, BLOCK_SIZE)];
+            }
+            while (from < to) {
+                final int filled = (int) Math.min(block.length, to - from);
+                sequence.fill(from, block, filled);
+                from += filled;
+                for (int i = 0; i < filled; i++) {
+                    action.accept(block[i]);
+                }
+            }
+        }
+
+        /**
+         * Not split while values of a block are pending, they come first
+         */
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (position < length || to - from <= BLOCK_SIZE) {
+                return null;
+            }
+
+            final long mid = (from + to) >>> 1;
+            final Spliterator.OfInt prefix = new Blocks(sequence, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from + length - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
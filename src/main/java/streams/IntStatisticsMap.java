@@ -0,0 +1,161 @@
+package streams;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+
+/**
+ * Count, sum, min and max of int values per int key, stored in parallel
+ * primitive arrays with open addressing. The primitive counterpart of a
+ * {@code Map<Integer,IntSummaryStatistics>}. Not thread-safe.
+ */
+public final class IntStatisticsMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private boolean[] used;
+    private long[] counts;
+    private long[] sums;
+    private int[] mins;
+    private int[] maxs;
+    private int size;
+
+    public IntStatisticsMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * A map holding up to expectedSize keys without rehashing
+     */
+    public IntStatisticsMap(final int expectedSize) {
+        allocate(OpenAddressing.capacityFor(expectedSize));
+    }
+
+    public void accept(final int key, final int value) {
+        final int slot = slotOf(key);
+        counts[slot]++;
+        sums[slot] += value;
+        mins[slot] = Math.min(mins[slot], value);
+        maxs[slot] = Math.max(maxs[slot], value);
+    }
+
+    public boolean containsKey(final int key) {
+        return OpenAddressing.find(key, keys, used) >= 0;
+    }
+
+    public long getCount(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    public long getSum(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? 0 : sums[slot];
+    }
+
+    /**
+     * {@link Integer#MAX_VALUE} for missing keys, like an empty
+     * {@link IntSummaryStatistics}
+     */
+    public int getMin(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? Integer.MAX_VALUE : mins[slot];
+    }
+
+    /**
+     * {@link Integer#MIN_VALUE} for missing keys, like an empty
+     * {@link IntSummaryStatistics}
+     */
+    public int getMax(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? Integer.MIN_VALUE : maxs[slot];
+    }
+
+    public double getAverage(final int key) {
+        final int slot = OpenAddressing.find(key, keys, used);
+        return slot < 0 ? 0.0 : (double) sums[slot] / counts[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public IntStatisticsMap addAll(final IntStatisticsMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.used[slot]) {
+                final int target = slotOf(other.keys[slot]);
+                counts[target] += other.counts[slot];
+                sums[target] += other.sums[slot];
+                mins[target] = Math.min(mins[target], other.mins[slot]);
+                maxs[target] = Math.max(maxs[target], other.maxs[slot]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The keys in ascending order
+     */
+    public int[] keys() {
+        final int[] result = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slotOf(final int key) {
+        int slot = OpenAddressing.slot(key, keys, used);
+        if (!used[slot]) {
+            if (OpenAddressing.isFull(size + 1, keys.length)) {
+                rehash();
+                slot = OpenAddressing.slot(key, keys, used);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            mins[slot] = Integer.MAX_VALUE;
+            maxs[slot] = Integer.MIN_VALUE;
+            size++;
+        }
+        return slot;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        counts = new long[capacity];
+        sums = new long[capacity];
+        mins = new int[capacity];
+        maxs = new int[capacity];
+    }
+
+    private void rehash() {
+        final int[] oldKeys = keys;
+        final boolean[] oldUsed = used;
+        final long[] oldCounts = counts;
+        final long[] oldSums = sums;
+        final int[] oldMins = mins;
+        final int[] oldMaxs = maxs;
+
+        allocate(OpenAddressing.grow(keys.length));
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                final int target = OpenAddressing.slot(oldKeys[slot], keys, used);
+                used[target] = true;
+                keys[target] = oldKeys[slot];
+                counts[target] = oldCounts[slot];
+                sums[target] = oldSums[slot];
+                mins[target] = oldMins[slot];
+                maxs[target] = oldMaxs[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package streams;
+
+/**
+ * Slot arithmetic shared by the open addressing maps. Tables have a power
+ * of two capacity and are kept at most half full.
+ */
+final class OpenAddressing {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenAddressing() {}
+
+    static int capacityFor(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+
+        final long wanted = Math.max(4L, 2L * expectedSize);
+        if (wanted > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    static boolean isFull(final int size, final int capacity) {
+        return size > capacity / 2;
+    }
+
+    static int grow(final int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        return capacity * 2;
+    }
+
+    static int hash(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The slot holding the key or the free slot where it would go
+     */
+    static int slot(final int key, final int[] keys, final boolean[] used) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * The slot holding the key or -1
+     */
+    static int find(final int key, final int[] keys, final boolean[] used) {
+        final int slot = slot(key, keys, used);
+        return used[slot] ? slot : -1;
+    }
+}
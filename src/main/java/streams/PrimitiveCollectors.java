@@ -0,0 +1,98 @@
+package streams;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Grouping collectors keyed by an int, like the year of an author, that
+ * never box keys nor values:
+ *
+ * <pre>
+ * IntLongMap authorsByYear = authors.stream().collect(countingByInt(Author::getYear));
+ * long authorsIn1929 = authorsByYear.get(1929);
+ * </pre>
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() {}
+
+    /**
+     * {@code groupingBy(key, counting())} into an {@link IntLongMap}
+     */
+    public static <T> Collector<T,?,IntLongMap> countingByInt(final ToIntFunction<? super T> key) {
+        return Collector.of(
+            IntLongMap::new,
+            (counts, item) -> counts.add(key.applyAsInt(item), 1),
+            IntLongMap::addAll,
+            Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * {@code groupingBy(key, summingInt(value))} into an {@link IntLongMap}.
+     * Sums are longs so they do not overflow.
+     */
+    public static <T> Collector<T,?,IntLongMap> summingIntByInt(final ToIntFunction<? super T> key, final ToIntFunction<? super T> value) {
+        return Collector.of(
+            IntLongMap::new,
+            (sums, item) -> sums.add(key.applyAsInt(item), value.applyAsInt(item)),
+            IntLongMap::addAll,
+            Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * {@code groupingBy(key, summarizingInt(value))} into an
+     * {@link IntStatisticsMap}
+     */
+    public static <T> Collector<T,?,IntStatisticsMap> summarizingIntByInt(final ToIntFunction<? super T> key, final ToIntFunction<? super T> value) {
+        return Collector.of(
+            IntStatisticsMap::new,
+            (statistics, item) -> statistics.accept(key.applyAsInt(item), value.applyAsInt(item)),
+            IntStatisticsMap::addAll,
+            Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * {@code toMap(name, year, merge)} into an {@link AuthorIndex}.
+     * Duplicate names are merged, never rejected. Every container starts
+     * small and grows with the names it gets, which suits parallel streams.
+     */
+    public static <T> Collector<T,?,AuthorIndex> indexingByName(
+        final Function<? super T,String> name,
+        final ToIntFunction<? super T> year,
+        final AuthorIndex.Merge merge) {
+
+        return Collector.of(
+            () -> new AuthorIndex(merge),
+            (index, item) -> index.accept(name.apply(item), year.applyAsInt(item)),
+            AuthorIndex::addAll,
+            Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    /**
+     * Same as {@link #indexingByName(Function, ToIntFunction, AuthorIndex.Merge)}
+     * into an index sized for expectedSize names, so loading them never
+     * rehashes. Meant for sequential streams: a parallel stream would size
+     * every one of its containers that way.
+     */
+    public static <T> Collector<T,?,AuthorIndex> indexingByName(
+        final Function<? super T,String> name,
+        final ToIntFunction<? super T> year,
+        final int expectedSize,
+        final AuthorIndex.Merge merge) {
+
+        return Collector.of(
+            () -> new AuthorIndex(expectedSize, merge),
+            (index, item) -> index.accept(name.apply(item), year.applyAsInt(item)),
+            AuthorIndex::addAll,
+            Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+}
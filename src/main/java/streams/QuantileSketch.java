@@ -0,0 +1,201 @@
+package streams;
+
+import java.util.Arrays;
+
+/**
+ * Approximate quantiles of a stream of doubles in fixed memory, a KLL
+ * sketch. Items are kept in levels of compactors: level h holds items
+ * standing for 2^h items each, and when a level fills up it is sorted and
+ * every other item (starting at a random one) moves one level up. Lower
+ * levels get smaller capacities, so the sketch keeps O(k) items however
+ * many are added.
+ *
+ * With the default k of 200, ranks are typically off by a fraction of a
+ * percent of the count and rarely by more than 2%. Sketches of parts of a
+ * stream can be merged. Count, min and max are exact. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long random = 0x9E3779B97F4A7C15L;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Bigger k means more accurate and more memory
+     */
+    public QuantileSketch(final int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.levels[0] = new double[k];
+    }
+
+    public void accept(final double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN can not be ranked");
+        }
+
+        add(0, value);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        compress();
+    }
+
+    /**
+     * Adds the items of the other sketch into this one
+     */
+    public QuantileSketch merge(final QuantileSketch other) {
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                add(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * The value below which roughly a fraction q of the items fall, NaN when
+     * the sketch is empty
+     */
+    public double quantile(final double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        final long rank = (long) Math.ceil(q * count);
+        final int[] next = new int[levels.length];
+        for (int level = 0; level < levels.length; level++) {
+            Arrays.sort(levels[level], 0, sizes[level]);
+        }
+
+        // merges the sorted levels until the weights reach the rank
+        long weight = 0;
+        while (true) {
+            int lowest = -1;
+            for (int level = 0; level < levels.length; level++) {
+                if (next[level] < sizes[level] &&
+                    (lowest < 0 || levels[level][next[level]] < levels[lowest][next[lowest]])) {
+                    lowest = level;
+                }
+            }
+            if (lowest < 0) {
+                return max;
+            }
+
+            final double value = levels[lowest][next[lowest]++];
+            weight += 1L << lowest;
+            if (weight >= rank) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Items kept by the sketch, a measure of its memory
+     */
+    public int retained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    private void add(final int level, final double value) {
+        // a merged sketch may have levels this one never reached
+        while (level >= levels.length) {
+            final int top = levels.length;
+            levels = Arrays.copyOf(levels, top + 1);
+            sizes = Arrays.copyOf(sizes, top + 1);
+            levels[top] = new double[capacity(top)];
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], 2 * levels[level].length);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] >= capacity(level)) {
+                compact(level);
+            }
+        }
+    }
+
+    /**
+     * Moves half of the items of the level, every other one once sorted, a
+     * level up. An odd item out stays.
+     */
+    private void compact(final int level) {
+        final double[] items = levels[level];
+        final int size = sizes[level];
+        Arrays.sort(items, 0, size);
+
+        final int paired = size & ~1;
+        for (int i = nextBit(); i < paired; i += 2) {
+            add(level + 1, items[i]);
+        }
+
+        if (paired < size) {
+            items[0] = items[size - 1];
+        }
+        sizes[level] = size - paired;
+    }
+
+    /**
+     * The top level holds k items, each level below two thirds of the one
+     * above
+     */
+    private int capacity(final int level) {
+        final int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random >>> 63);
+    }
+}
@@ -0,0 +1,52 @@
+package streams;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors summarizing unbounded streams in fixed memory, for what
+ * {@code summarizingInt} can not tell without keeping every item:
+ *
+ * <pre>
+ * QuantileSketch prices = cars.parallelStream().collect(quantiles(car -&gt; car.price));
+ * double p99 = prices.quantile(0.99);
+ *
+ * long names = authors.stream().collect(countingDistinct(Author::getName)).estimate();
+ * </pre>
+ *
+ * Results are approximate, see {@link QuantileSketch} and
+ * {@link DistinctCountSketch} for the error bounds.
+ */
+public final class SketchCollectors {
+
+    private SketchCollectors() {}
+
+    public static <T> Collector<T,?,QuantileSketch> quantiles(final ToDoubleFunction<? super T> value) {
+        return quantiles(value, QuantileSketch.DEFAULT_K);
+    }
+
+    public static <T> Collector<T,?,QuantileSketch> quantiles(final ToDoubleFunction<? super T> value, final int k) {
+        return Collector.of(
+            () -> new QuantileSketch(k),
+            (sketch, item) -> sketch.accept(value.applyAsDouble(item)),
+            QuantileSketch::merge,
+            Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+
+    public static <T> Collector<T,?,DistinctCountSketch> countingDistinct(final Function<? super T,?> key) {
+        return countingDistinct(key, DistinctCountSketch.DEFAULT_PRECISION);
+    }
+
+    public static <T> Collector<T,?,DistinctCountSketch> countingDistinct(final Function<? super T,?> key, final int precision) {
+        return Collector.of(
+            () -> new DistinctCountSketch(precision),
+            (sketch, item) -> sketch.accept(key.apply(item)),
+            DistinctCountSketch::merge,
+            Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED
+        );
+    }
+}
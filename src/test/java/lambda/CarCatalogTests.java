@@ -0,0 +1,70 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CarCatalogTests {
+
+    @Test
+    public void findingCarsThroughIndexes() {
+        Car fiesta = new Car("ford", "fiesta", 12000.0);
+        Car focus = new Car("ford", null, 18000.0);
+        Car ds3 = new Car("citroen", "ds3", 15000.0);
+        CarCatalog catalog = CarCatalog.of(Arrays.asList(fiesta, focus, ds3));
+
+        assertThat(catalog.firstByBrand(new String("ford")).flatMap(Car::getModel), is(Optional.of("fiesta")));
+        assertThat(catalog.byBrand("ford"), is(Arrays.asList(fiesta, focus)));
+        assertThat(catalog.byModel(null), is(Arrays.asList(focus)));
+        assertThat(catalog.pricedBetween(12000.0, 18000.0), is(Arrays.asList(fiesta, ds3)));
+        assertThat(catalog.cheapest(), is(Optional.of(fiesta)));
+        assertThat(catalog.byBrand("seat").isEmpty(), is(true));
+    }
+
+    @Test
+    public void keepingIndexesConsistent() {
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            cars.add(new Car("brand" + random.nextInt(20), "model" + random.nextInt(100), (double) random.nextInt(500)));
+        }
+        CarCatalog catalog = CarCatalog.of(cars);
+
+        for (int i = 0; i < 500; i++) {
+            Car car = cars.get(random.nextInt(cars.size()));
+            if (!catalog.contains(car)) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                car.price = (double) random.nextInt(500);
+                car.brand = "brand" + random.nextInt(20);
+                catalog.changed(car);
+            } else {
+                catalog.remove(car);
+            }
+        }
+
+        List<Car> remaining = cars.stream().filter(catalog::contains).collect(Collectors.toList());
+        assertThat(catalog.size(), is(remaining.size()));
+        for (int brand = 0; brand < 20; brand++) {
+            String name = "brand" + brand;
+            assertThat(
+                catalog.byBrand(name).size(),
+                is((int) remaining.stream().filter(car -> car.brand.equals(name)).count()));
+        }
+        assertThat(
+            catalog.pricedBetween(100.0, 200.0).size(),
+            is((int) remaining.stream().filter(car -> car.price >= 100.0 && car.price < 200.0).count()));
+    }
+}
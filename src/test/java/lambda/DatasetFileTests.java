@@ -0,0 +1,83 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DatasetFileTests {
+
+    @Test
+    public void mappingCars() throws IOException {
+        Path path = Files.createTempFile("cars", ".bin");
+        try {
+            long written = CarFile.write(path, Stream.of(
+                new Car("citroen","ds3",5000.50),
+                new Car("citroen",null,4000.50),
+                new Car("se\u00f1or","ds3",null)));
+
+            try (CarFile cars = CarFile.open(path)) {
+                assertThat(written, is(3L));
+                assertThat(cars.size(), is(3L));
+                assertThat(cars.brand(0), is("citroen"));
+                assertThat(cars.model(1), nullValue());
+                assertThat(cars.brand(2), is("se\u00f1or"));
+                assertThat(cars.price(0), is(5000.50));
+                assertThat(cars.car(2).price, nullValue());
+
+                CarFile.Cursor cursor = cars.cursor();
+                double total = 0;
+                while (cursor.next()) {
+                    total += Double.isNaN(cursor.price()) ? 0 : cursor.price();
+                }
+                assertThat(total, is(9001.0));
+
+                List<String> models = cars.cars().map(car -> car.model).collect(Collectors.toList());
+                assertThat(models.size(), is(3));
+                assertThat(models.get(2), is("ds3"));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void mappingAuthors() throws IOException {
+        Path path = Files.createTempFile("authors", ".bin");
+        try {
+            AuthorFile.write(path, Stream.of(new Author("John", 1929), new Author("Peter", null)));
+
+            try (AuthorFile authors = AuthorFile.open(path)) {
+                assertThat(authors.size(), is(2L));
+                assertThat(authors.name(1), is("Peter"));
+                assertThat(authors.year(0), is(1929));
+                assertThat(authors.author(1).getYear(), nullValue());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void refusingOtherDatasets() throws IOException {
+        Path path = Files.createTempFile("authors", ".bin");
+        try {
+            AuthorFile.write(path, Stream.of(new Author("John", 1929)));
+            CarFile.open(path).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static lambda.Sort.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ExternalSortTests {
+
+    private static final ExternalSort.Serializer<Car> CARS = new ExternalSort.Serializer<Car>() {
+        public void write(Car car, DataOutput out) throws IOException {
+            out.writeUTF(car.brand);
+            out.writeUTF(car.model);
+            out.writeDouble(car.price);
+        }
+
+        public Car read(DataInput in) throws IOException {
+            return new Car(in.readUTF(), in.readUTF(), in.readDouble());
+        }
+    };
+
+    private static List<Car> cars(int size) {
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(29);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car("citroen", "ds" + i, (double) random.nextInt(500)));
+        }
+        return cars;
+    }
+
+    @Test
+    public void spillingAndMergingRuns() throws IOException {
+        List<Car> cars = cars(10000);
+        List<String> sorted = new ArrayList<>();
+        Path directory = Files.createTempDirectory("external-sort");
+
+        try {
+            ExternalSort.Statistics statistics =
+                ExternalSort.by((Car car) -> car.price, CARS).
+                    runSize(100).
+                    fanIn(4).
+                    tempDirectory(directory).
+                    sort(cars.stream(), car -> sorted.add(car.model));
+
+            List<String> expected = new ArrayList<>();
+            sort(cars).by(car -> car.price).forEach(car -> expected.add(car.model));
+
+            assertThat(sorted, is(expected));
+            assertThat(statistics.getItems(), is(10000L));
+            assertThat(statistics.getMergePasses(), is(4));
+            assertThat(statistics.getRuns() > 100, is(true));
+            assertThat(statistics.getSpilledBytes() > 0, is(true));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.count(), is(0L));
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void sortingInMemoryWhenEverythingFits() throws IOException {
+        List<Car> cars = cars(50);
+        List<Car> sorted = new ArrayList<>();
+
+        ExternalSort.Statistics statistics =
+            ExternalSort.by((Car car) -> car.price, CARS).sort(cars.iterator(), sorted::add);
+
+        assertThat(sorted, is(sort(cars).by(car -> car.price)));
+        assertThat(statistics.getRuns(), is(0L));
+        assertThat(statistics.getMergePasses(), is(0));
+    }
+
+}
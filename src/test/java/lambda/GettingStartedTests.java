@@ -7,6 +7,7 @@ import static lambda.Sort.sort;
 
 import java.util.List;
 import java.util.Arrays;
+import java.util.Locale;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -26,6 +27,16 @@ public class GettingStartedTests {
         );
     }
 
+    @Test
+    public void sortingListByNameInALocale() {
+        GettingStarted gettingStarted = new GettingStarted();
+        List<String> names = Arrays.asList("\u00c9mile", "Zo\u00e9", "eva", "Adri\u00e1n");
+
+        List<String> sortedNames = gettingStarted.sortListByName(names, Locale.FRENCH);
+
+        assertThat(sortedNames, is(Arrays.asList("Adri\u00e1n", "\u00c9mile", "eva", "Zo\u00e9")));
+    }
+
     /**
      * When lambda expression use one parameter we can ommit the parenthesis
      */
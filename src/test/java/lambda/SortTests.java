@@ -0,0 +1,472 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.CoreMatchers.is;
+import static lambda.Sort.sort;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SortTests {
+
+    private static List<Car> cars() {
+        return Arrays.asList(
+            new Car("citroen","ds4",4000.50),
+            new Car("citroen","ds3",5000.50),
+            new Car("renault","clio",4000.50),
+            new Car("citroen","ds5",3000.50)
+        );
+    }
+
+    /**
+     * Extracting the key once per item gives the same (stable) order
+     */
+    @Test
+    public void sortingByExtractedKey() {
+        AtomicInteger extractions = new AtomicInteger();
+        List<Car> byPrice = sort(cars()).byKey(car -> {
+            extractions.incrementAndGet();
+            return car.price;
+        });
+
+        assertThat(extractions.get(), is(4));
+        assertThat(byPrice.get(0).model, is("ds5"));
+        assertThat(byPrice.get(1).model, is("ds4"));
+        assertThat(byPrice.get(2).model, is("clio"));
+        assertThat(byPrice.get(3).model, is("ds3"));
+    }
+
+    @Test
+    public void sortingByPrimitiveKeys() {
+        List<Car> byPrice = sort(cars()).byDouble(car -> car.price);
+        List<Car> byModelLength = sort(cars()).byInt(car -> car.model.length());
+        List<Author> byYear =
+            sort(Arrays.asList(
+                new Author("John", 2014),
+                new Author("Peter", 1929),
+                new Author("Jackson", -1929))).byLong(Author::getYear);
+
+        assertThat(byPrice.get(0).model, is("ds5"));
+        assertThat(byPrice.get(1).model, is("ds4"));
+        assertThat(byPrice.get(2).model, is("clio"));
+        assertThat(byPrice.get(3).model, is("ds3"));
+        assertThat(byModelLength.get(0).model, is("ds4"));
+        assertThat(byModelLength.get(3).model, is("clio"));
+        assertThat(byYear.get(0).getName(), is("Jackson"));
+        assertThat(byYear.get(2).getName(), is("John"));
+    }
+
+    @Test
+    public void sortingManyPrimitiveKeysIsStable() {
+        List<Integer> numbers = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            numbers.add(random.nextInt(50) - 25);
+        }
+
+        List<Integer> expected = sort(numbers).byKey(n -> Math.abs(n));
+        List<Integer> actual = sort(numbers).byInt(n -> Math.abs(n));
+
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void sortingInParallelLeavesSourceUntouched() {
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            cars.add(new Car("citroen", "ds" + random.nextInt(100), (double) random.nextInt(1000)));
+        }
+        List<Car> original = new ArrayList<>(cars);
+
+        List<Car> expected = sort(new ArrayList<>(cars)).byKey(car -> car.price);
+        Sort<Car> parallel = sort(cars).parallel(64);
+
+        assertThat(parallel.by(car -> car.price), is(expected));
+        assertThat(parallel.byKey(car -> car.price), is(expected));
+        assertThat(parallel.byDouble(car -> car.price), is(expected));
+        assertThat(parallel.byInt(car -> car.price.intValue()), is(expected));
+        assertThat(cars, is(original));
+    }
+
+    @Test
+    public void parallelSortsDoNotFallBackToRadix() {
+        int[] ints = new int[RadixSort.MIN_LENGTH * 16];
+        long[] longs = new long[ints.length];
+        Random random = new Random(5);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < ints.length; i++) {
+            items.add(random.nextInt(1000));
+        }
+
+        assertThat(sort(items).radixSorts(ints), is(true));
+        assertThat(sort(items).parallel().radixSorts(ints), is(false));
+        assertThat(sort(items).parallel().radixSorts(longs), is(false));
+        assertThat(sort(items).parallel().using(SortEngine.RADIX).radixSorts(ints), is(true));
+        assertThat(
+            sort(items).parallel().byInt(Integer::intValue),
+            is(sort(items).using(SortEngine.RADIX).byInt(Integer::intValue)));
+    }
+
+    @Test
+    public void sortingImmutableLists() {
+        List<Car> cars = Collections.unmodifiableList(cars());
+
+        List<Car> byModel = sort(cars).by(car -> car.model);
+
+        assertThat(byModel.get(0).model, is("clio"));
+        assertThat(cars.get(0).model, is("ds4"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sortedListsAreUnmodifiable() {
+        sort(cars()).by(car -> car.model).add(new Car("seat", "ibiza", 1000.0));
+    }
+
+    @Test
+    public void sharingSortBetweenThreads() throws Exception {
+        List<Integer> numbers = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            numbers.add(random.nextInt());
+        }
+
+        Sort<Integer> shared = sort(numbers);
+        List<Integer> expected = shared.by(n -> n);
+        Callable<List<Integer>> sorting = () -> shared.by(n -> n);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (Future<List<Integer>> result : executor.invokeAll(Collections.nCopies(8, sorting))) {
+                assertThat(result.get(), is(expected));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void rankingWithoutSortingEverything() {
+        List<Car> cheapest = sort(cars()).top(2, car -> car.price);
+        List<Car> mostExpensive = sort(cars()).bottom(2, car -> car.price);
+
+        assertThat(cheapest.size(), is(2));
+        assertThat(cheapest.get(0).model, is("ds5"));
+        assertThat(cheapest.get(1).model, is("ds4"));
+        assertThat(mostExpensive.get(0).model, is("clio"));
+        assertThat(mostExpensive.get(1).model, is("ds3"));
+        assertThat(sort(cars()).top(10, car -> car.price).size(), is(4));
+        assertThat(sort(cars()).top(0, car -> car.price).size(), is(0));
+        assertThat(sort(cars()).top(Integer.MAX_VALUE, car -> car.price).size(), is(4));
+    }
+
+    @Test
+    public void rankingAStreamMatchesSorting() {
+        List<Integer> numbers = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 2000; i++) {
+            numbers.add(random.nextInt(100));
+        }
+        List<Integer> sorted = sort(numbers).by(n -> n % 10);
+
+        List<Integer> top = Sort.top(numbers.stream(), 15, n -> n % 10);
+        List<Integer> bottom = Sort.bottom(numbers.stream(), 15, n -> n % 10);
+
+        assertThat(top, is(sorted.subList(0, 15)));
+        assertThat(bottom, is(sorted.subList(sorted.size() - 15, sorted.size())));
+    }
+
+    @Test
+    public void sortingByManyKeys() {
+        List<Car> cars = Arrays.asList(
+            new Car("renault", "clio", 3000.0),
+            new Car("citroen", "ds3", 4000.0),
+            new Car("citroen", null, 9000.0),
+            new Car("citroen", "ds3", 5000.0),
+            new Car("citroen", "c4", 4000.0));
+
+        List<Car> sorted = sort(cars).by(
+            CompositeSortStrategy.<Car>by(car -> car.brand).
+                thenByOptional(Car::getModel).
+                thenByDescending(car -> car.price));
+
+        List<Car> missingModelFirst = sort(cars).by(
+            CompositeSortStrategy.<Car>by(car -> car.brand).
+                thenByOptional(Car::getModel).descending().nullsFirst().
+                thenByDouble(car -> car.price));
+
+        assertThat(sorted.get(0).model, is("c4"));
+        assertThat(sorted.get(1).price, is(5000.0));
+        assertThat(sorted.get(2).price, is(4000.0));
+        assertThat(sorted.get(3).price, is(9000.0));
+        assertThat(sorted.get(4).model, is("clio"));
+        assertThat(missingModelFirst.get(0).price, is(9000.0));
+        assertThat(missingModelFirst.get(1).price, is(4000.0));
+        assertThat(missingModelFirst.get(2).price, is(5000.0));
+        assertThat(missingModelFirst.get(3).model, is("c4"));
+    }
+
+    @Test
+    public void reusingMemoizedKeys() {
+        List<Car> cars = cars();
+        AtomicInteger extractions = new AtomicInteger();
+        MemoizedSortStrategy<Car,Comparable> model = SortStrategy.memoized(car -> {
+            extractions.incrementAndGet();
+            return car.model.toUpperCase();
+        }, 10);
+        MemoizedSortStrategy<Car,Comparable> bounded = SortStrategy.memoized(car -> car.model, 2);
+
+        sort(cars).by(model);
+        List<Car> sorted = sort(cars).byKey(model);
+        sort(cars).byKey(bounded);
+
+        assertThat(sorted.get(0).model, is("clio"));
+        assertThat(extractions.get(), is(4));
+        assertThat(model.misses(), is(4L));
+        assertThat(model.hits() >= 4, is(true));
+        assertThat(bounded.size(), is(2));
+    }
+
+    @Test
+    public void radixSortingIsStable() {
+        List<Author> authors = new ArrayList<>();
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 5000; i++) {
+            authors.add(new Author("author" + i, 1900 + random.nextInt(120)));
+            authors.add(new Author("author" + i, random.nextInt()));
+            cars.add(new Car("citroen", "ds" + i, random.nextGaussian() * 1000));
+            cars.add(new Car("citroen", "ds" + i, (double) random.nextInt(10)));
+        }
+
+        assertThat(
+            sort(authors).using(SortEngine.RADIX).byInt(Author::getYear),
+            is(sort(authors).using(SortEngine.COMPARISON).byInt(Author::getYear)));
+        assertThat(
+            sort(authors).using(SortEngine.RADIX).byLong(Author::getYear),
+            is(sort(authors).byKey(Author::getYear)));
+        assertThat(
+            sort(cars).using(SortEngine.RADIX).byDouble(car -> car.price),
+            is(sort(cars).byKey(car -> car.price)));
+        assertThat(
+            sort(authors.subList(0, 1000)).using(SortEngine.RADIX).byInt(author -> author.getYear() % 100),
+            is(sort(authors.subList(0, 1000)).byKey(author -> author.getYear() % 100)));
+        assertThat(sort(new ArrayList<Author>()).using(SortEngine.RADIX).byInt(Author::getYear).size(), is(0));
+    }
+
+    @Test
+    public void keepingAViewSortedAcrossChanges() {
+        List<Car> cars = new ArrayList<>(cars());
+        SortedView<Car> view = SortedView.of(cars, car -> car.price);
+        Random random = new Random(31);
+
+        assertThat(view.first().model, is("ds5"));
+        assertThat(view.last().model, is("ds3"));
+
+        for (int i = 0; i < 500; i++) {
+            Car car = cars.get(random.nextInt(cars.size()));
+            if (i % 3 == 0) {
+                car.price = (double) random.nextInt(100);
+                view.changed(car);
+            } else if (i % 3 == 1) {
+                Car added = new Car("citroen", "c" + i, (double) random.nextInt(100));
+                cars.add(added);
+                view.add(added);
+            } else {
+                cars.remove(car);
+                assertThat(view.remove(car), is(true));
+            }
+
+            List<Car> expected = sort(cars).by(item -> item.price);
+            assertThat(view.size(), is(cars.size()));
+            assertThat(view.get(0).price, is(expected.get(0).price));
+            assertThat(
+                view.range(0, view.size()).stream().map(item -> item.price).collect(Collectors.toList()),
+                is(expected.stream().map(item -> item.price).collect(Collectors.toList())));
+            assertThat(view.indexOf(view.get(view.size() / 2)), is(view.size() / 2));
+        }
+    }
+
+    @Test
+    public void sortingByCollationKeys() {
+        List<Author> authors = Arrays.asList(
+            new Author("\u00d6zil", 1988),
+            new Author("Zimmer", 1950),
+            new Author(null, 1900),
+            new Author("oliver", 1970));
+        CollationKeyCache cache = new CollationKeyCache(Locale.GERMAN, 100);
+
+        List<Author> sorted = sort(authors).byCollation(Author::getName, cache);
+        sort(authors).byCollation(Author::getName, cache);
+
+        assertThat(sorted.get(0).getName(), is("oliver"));
+        assertThat(sorted.get(1).getName(), is("\u00d6zil"));
+        assertThat(sorted.get(2).getName(), is("Zimmer"));
+        assertThat(sorted.get(3).getYear(), is(1900));
+        assertThat(cache.size(), is(3));
+    }
+
+    @Test
+    public void sortingByNullableKeys() {
+        List<Car> cars = new ArrayList<>(cars());
+        cars.add(1, new Car("seat", null, 2000.0));
+        cars.add(new Car("fiat", null, 1000.0));
+
+        List<Car> nullsLast = sort(cars).byNullable(car -> car.model, NullPolicy.LAST);
+        List<Car> nullsFirst = sort(cars).parallel(2).byNullable(car -> car.model, NullPolicy.FIRST);
+
+        assertThat(
+            nullsLast.stream().map(car -> car.brand).collect(Collectors.toList()),
+            is(Arrays.asList("renault", "citroen", "citroen", "citroen", "seat", "fiat")));
+        assertThat(
+            nullsFirst.stream().map(car -> car.brand).collect(Collectors.toList()),
+            is(Arrays.asList("seat", "fiat", "renault", "citroen", "citroen", "citroen")));
+        assertThat(nullsFirst.get(3).model, is("ds3"));
+    }
+
+    @Test
+    public void sortingAsynchronously() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            BoundedExecutor executor = new BoundedExecutor(pool, 2);
+            List<Car> cars = new ArrayList<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 5000; i++) {
+                cars.add(new Car("brand", "model" + i, (double) random.nextInt(1000)));
+            }
+
+            List<CompletableFuture<List<Car>>> sorts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                sorts.add(sort(cars).byAsync(car -> car.price, executor));
+            }
+
+            List<Car> expected = sort(cars).byKey(car -> car.price);
+            for (CompletableFuture<List<Car>> sorted : sorts) {
+                assertThat(sorted.get(), is(expected));
+            }
+
+            CompletableFuture<List<Car>> late = sort(cars).byAsync(car -> car.price, executor, Duration.ZERO);
+            try {
+                late.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause() instanceof TimeoutException, is(true));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void timingOutWhileWaitingForTheExecutor() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            BoundedExecutor executor = new BoundedExecutor(pool, 1);
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            CompletableFuture<List<Car>> waiting = sort(cars()).byAsync(car -> car.price, executor, Duration.ofMillis(50));
+            try {
+                waiting.get(2, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause() instanceof TimeoutException, is(true));
+            }
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectingNegativeTimeouts() {
+        sort(cars()).byAsync(car -> car.price, Runnable::run, Duration.ofMillis(-5));
+    }
+
+    @Test
+    public void noTaskIsLostWhenTheExecutorShutsDown() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedExecutor executor = new BoundedExecutor(pool, 1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // queued behind the running task, then the pool stops taking tasks
+        CompletableFuture<List<Car>> queued = sort(cars()).byAsync(car -> car.price, executor);
+        pool.shutdown();
+        release.countDown();
+
+        assertThat(queued.get(2, TimeUnit.SECONDS).get(0).model, is("ds5"));
+        assertThat(pool.awaitTermination(2, TimeUnit.SECONDS), is(true));
+
+        CompletableFuture<List<Car>> rejected = sort(cars()).byAsync(car -> car.price, executor);
+        try {
+            rejected.get(2, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof RejectedExecutionException, is(true));
+        }
+    }
+
+    @Test
+    public void boundingConcurrency() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            BoundedExecutor executor = new BoundedExecutor(pool, 3);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }, executor));
+            }
+
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()])).get();
+            assertThat(maxRunning.get() <= 3, is(true));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
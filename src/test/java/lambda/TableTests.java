@@ -0,0 +1,80 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TableTests {
+
+    @Test
+    public void scanningCarColumns() {
+        CarTable cars = CarTable.of(Arrays.asList(
+            new Car("citroen","ds3",5000.50),
+            new Car("citroen","ds4",4000.50),
+            new Car("renault",null,3000.50),
+            new Car("citroen","ds5",null)));
+
+        assertThat(cars.size(), is(4));
+        assertThat(cars.wherePriceAtLeast(4000), is(new int[] {0, 1}));
+        assertThat(cars.wherePriceBetween(3000, 4500), is(new int[] {1, 2}));
+        assertThat(cars.countPriceAtLeast(4000), is(2L));
+        assertThat(cars.whereBrand("citroen"), is(new int[] {0, 1, 3}));
+        assertThat(cars.whereBrand("ford"), is(new int[0]));
+        assertThat(cars.whereModel(null), is(new int[] {2}));
+        assertThat(cars.sortedByPrice(), is(new int[] {2, 1, 0, 3}));
+        assertThat(cars.countByBrand().get("citroen"), is(3L));
+        assertThat(cars.priceStatistics(cars.wherePriceAtLeast(4000)).getSum(), is(9001.0));
+        assertThat(cars.priceStatistics().getCount(), is(3L));
+        assertThat(cars.priceStatistics().getMax(), is(5000.50));
+        assertThat(cars.priceStatistics(new int[] {2, 3}).getAverage(), is(3000.50));
+        assertThat(cars.car(2).getModel().isPresent(), is(false));
+        assertThat(cars.car(3).price == null, is(true));
+    }
+
+    @Test
+    public void scanningAuthorColumns() {
+        AuthorTable authors = AuthorTable.of(Arrays.asList(
+            new Author("John", 1929),
+            new Author("Jackson", 1929),
+            new Author("John", 1929),
+            new Author("Peter", 2014)));
+
+        assertThat(authors.whereName("John"), is(new int[] {0, 2}));
+        assertThat(authors.whereYearBetween(2000, 2020), is(new int[] {3}));
+        assertThat(authors.sortedByYear(), is(new int[] {0, 1, 2, 3}));
+        assertThat(authors.countByYear().get(1929), is(3L));
+        assertThat(authors.yearStatistics().getMax(), is(2014));
+        assertThat(authors.author(1).getName(), is("Jackson"));
+    }
+
+    @Test
+    public void leavingMissingYearsOutOfAggregations() {
+        AuthorTable authors = AuthorTable.of(Arrays.asList(
+            new Author("John", 1929),
+            new Author("Anonymous", null),
+            new Author("Peter", 2014)));
+
+        assertThat(authors.yearStatistics().getMin(), is(1929));
+        assertThat(authors.yearStatistics().getCount(), is(2L));
+        assertThat(authors.countByYear().size(), is(2));
+        assertThat(authors.whereYearBetween(Integer.MIN_VALUE, 2000), is(new int[] {0}));
+        assertThat(authors.sortedByYear(), is(new int[] {0, 2, 1}));
+        assertThat(authors.year(1), is(Years.MISSING));
+        assertThat(authors.author(1).getYear() == null, is(true));
+
+        try {
+            authors.add(new Author("Nobody", Years.MISSING));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(authors.size(), is(3));
+        }
+    }
+
+}
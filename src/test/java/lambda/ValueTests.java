@@ -0,0 +1,54 @@
+package lambda;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ValueTests {
+
+    @Test
+    public void groupingAndDistinctByValue() {
+        Interner interner = new Interner();
+        List<CarValue> cars =
+            Arrays.asList(
+                new Car(new String("citroen"), "ds4", 4000.5),
+                new Car(new String("citroen"), "ds4", 4000.5),
+                new Car("renault", null, null)).
+                stream().
+                map(car -> CarValue.of(car, interner)).
+                collect(Collectors.toList());
+
+        Map<String,Long> byBrand = cars.stream().collect(Collectors.groupingBy(CarValue::getBrand, Collectors.counting()));
+
+        assertThat(cars.stream().distinct().count(), is(2L));
+        assertThat(cars.get(0).getBrand() == cars.get(1).getBrand(), is(true));
+        assertThat(byBrand.get("citroen"), is(2L));
+        assertThat(cars.get(2).hasPrice(), is(false));
+        assertThat(cars.get(2).toCar().price == null, is(true));
+        assertThat(interner.size(), is(3));
+        assertThat(cars.get(0).toString(), is(cars.get(0).toCar().toString()));
+    }
+
+    @Test
+    public void convertingAuthors() {
+        AuthorValue john = AuthorValue.of(new Author("John", 1929));
+        AuthorValue unknown = AuthorValue.of(new Author("Peter", null));
+
+        assertThat(john, is(AuthorValue.of("John", 1929)));
+        assertThat(john.hashCode(), is(AuthorValue.of("John", 1929).hashCode()));
+        assertThat(john.toAuthor().getYear(), is(1929));
+        assertThat(unknown.hasYear(), is(false));
+        assertThat(unknown.toAuthor().getYear() == null, is(true));
+        assertThat(unknown.toString(), is("Peter (no year)"));
+        assertThat(john.toString(), is("John (1929)"));
+    }
+}
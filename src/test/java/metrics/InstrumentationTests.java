@@ -0,0 +1,72 @@
+package metrics;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static lambda.Sort.sort;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import lambda.Author;
+
+@RunWith(JUnit4.class)
+public class InstrumentationTests {
+
+    private static List<Author> authorList =
+        Arrays.asList(new Author("John", 1929),
+            new Author("Jackson", 1929),
+            new Author("Peter", 2014));
+
+    private final List<Measurement> measurements = new ArrayList<>();
+
+    @After
+    public void disable() {
+        Instrumentation.disable();
+    }
+
+    @Test
+    public void measuringSorts() {
+        Instrumentation.enable(measurements::add);
+
+        sort(authorList).tagged("authors").byKey(Author::getName);
+        sort(authorList).byInt(Author::getYear);
+
+        assertThat(measurements.size(), is(2));
+
+        Measurement byName = measurements.get(0);
+        assertThat(byName.getTag(), is("authors"));
+        assertThat(byName.getInputSize(), is(3L));
+        assertThat(byName.getComparisons() > 0, is(true));
+        assertThat(byName.getKeyExtractions(), is(3L));
+
+        Measurement byYear = measurements.get(1);
+        assertThat(byYear.getTag(), is("sort"));
+        assertThat(byYear.getComparisons(), is(-1L));
+    }
+
+    @Test
+    public void measuringCollectors() {
+        Instrumentation.enable(measurements::add);
+
+        long count = authorList.stream().collect(Instrumentation.instrument("count", Collectors.counting()));
+
+        assertThat(count, is(3L));
+        assertThat(measurements.size(), is(1));
+        assertThat(measurements.get(0).getInputSize(), is(3L));
+    }
+
+    @Test
+    public void nothingIsMeasuredWhenDisabled() {
+        sort(authorList).byKey(Author::getName);
+
+        assertThat(Instrumentation.start("sort", 3), is((Probe) null));
+        assertThat(measurements.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,53 @@
+package streams;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static streams.ConcurrentCollectors.countingConcurrent;
+import static streams.ConcurrentCollectors.summingConcurrent;
+import static streams.ConcurrentCollectors.reducingConcurrent;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import lambda.Author;
+
+@RunWith(JUnit4.class)
+public class ConcurrentCollectorsTests {
+
+    private static List<Author> authors() {
+        List<Author> authors = new ArrayList<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 200000; i++) {
+            authors.add(new Author("author" + random.nextInt(20000), 1900 + random.nextInt(120)));
+        }
+        return authors;
+    }
+
+    @Test
+    public void groupingConcurrentlyMatchesGroupingBy() {
+        List<Author> authors = authors();
+
+        Map<String, Long> expectedCounts =
+            authors.stream().collect(Collectors.groupingBy(Author::getName, Collectors.counting()));
+        Map<String, Long> expectedSums =
+            authors.stream().collect(Collectors.groupingBy(Author::getName, Collectors.summingLong(Author::getYear)));
+        Map<String, Long> expectedLatest =
+            authors.stream().collect(Collectors.groupingBy(Author::getName,
+                Collectors.reducing(Long.MIN_VALUE, author -> (long) author.getYear(), Math::max)));
+
+        assertThat(authors.parallelStream().collect(countingConcurrent(Author::getName)), is(expectedCounts));
+        assertThat(authors.parallelStream().collect(summingConcurrent(Author::getName, Author::getYear)), is(expectedSums));
+        assertThat(
+            authors.parallelStream().collect(reducingConcurrent(Author::getName, Long.MIN_VALUE, Author::getYear, Math::max)),
+            is(expectedLatest));
+        assertThat(authors.stream().collect(countingConcurrent(Author::getName)), is(expectedCounts));
+    }
+
+}
@@ -0,0 +1,88 @@
+package streams;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import lambda.Car;
+
+@RunWith(JUnit4.class)
+public class DelimitedWriterTests {
+
+    private static List<Car> cars() {
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            cars.add(new Car("brand", i % 100 == 0 ? null : "model-\u00f1-" + random.nextInt(1000), 1000.0));
+        }
+        return cars;
+    }
+
+    @Test
+    public void writingLikeJoining() throws Exception {
+        List<Car> cars = cars();
+        String joined = cars.stream().map(Car::toString).collect(Collectors.joining("|"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DelimitedWriter.Statistics statistics;
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            statistics = DelimitedWriter.<Car>of(Car::toString).delimiter("|").bufferSize(64).write(cars.stream(), channel);
+        }
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(joined));
+        assertThat(statistics.getRecords(), is(20000L));
+        assertThat(statistics.getBytes(), is((long) out.size()));
+    }
+
+    @Test
+    public void encodingInParallelKeepsTheOrder() throws Exception {
+        List<Car> cars = cars();
+        String joined = cars.stream().map(Car::toString).collect(Collectors.joining("|"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            DelimitedWriter.<Car>of(Car::toString).delimiter("|").chunkSize(100).bufferSize(256).parallel(pool, 4).write(cars.stream(), channel);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(joined));
+    }
+
+    @Test
+    public void replacingMalformedTextLikeGetBytes() throws Exception {
+        List<String> texts = Arrays.asList("a\ud800", "b", "\udc00c");
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try (WritableByteChannel channel = Channels.newChannel(sequential)) {
+            DelimitedWriter.<String>of(text -> text).delimiter("|").write(texts.stream(), channel);
+        }
+        try (WritableByteChannel channel = Channels.newChannel(parallel)) {
+            DelimitedWriter.<String>of(text -> text).delimiter("|").chunkSize(1).parallel(pool, 2).write(texts.stream(), channel);
+        } finally {
+            pool.shutdown();
+        }
+
+        byte[] expected = String.join("|", texts).getBytes(StandardCharsets.UTF_8);
+        assertThat(sequential.toByteArray(), is(expected));
+        assertThat(parallel.toByteArray(), is(expected));
+    }
+}
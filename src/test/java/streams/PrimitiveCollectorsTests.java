@@ -0,0 +1,108 @@
+package streams;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static streams.PrimitiveCollectors.countingByInt;
+import static streams.PrimitiveCollectors.summingIntByInt;
+import static streams.PrimitiveCollectors.summarizingIntByInt;
+import static streams.PrimitiveCollectors.indexingByName;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import lambda.Author;
+
+@RunWith(JUnit4.class)
+public class PrimitiveCollectorsTests {
+
+    private static List<Author> authorList =
+        Arrays.asList(new Author("John", 1929),
+            new Author("Jackson", 1929),
+            new Author("John", 1929),
+            new Author("Peter", 2014));
+
+    @Test
+    public void groupingWithoutBoxing() {
+        IntLongMap authorsByYear = authorList.stream().collect(countingByInt(Author::getYear));
+        IntLongMap sumOfNameLengthsByYear =
+            authorList.stream().collect(summingIntByInt(Author::getYear, author -> author.getName().length()));
+        IntStatisticsMap statistics =
+            authorList.stream().collect(summarizingIntByInt(Author::getYear, author -> author.getName().length()));
+
+        assertThat(authorsByYear.size(), is(2));
+        assertThat(authorsByYear.get(1929), is(3L));
+        assertThat(authorsByYear.get(2014), is(1L));
+        assertThat(authorsByYear.get(1492), is(0L));
+        assertThat(sumOfNameLengthsByYear.get(1929), is(15L));
+        assertThat(statistics.getCount(1929), is(3L));
+        assertThat(statistics.getMin(1929), is(4));
+        assertThat(statistics.getMax(1929), is(7));
+        assertThat(statistics.getAverage(2014), is(5.0));
+        assertThat(statistics.keys(), is(new int[] {1929, 2014}));
+    }
+
+    @Test
+    public void groupingInParallelMatchesGroupingBy() {
+        List<Author> authors = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 100000; i++) {
+            authors.add(new Author("author", random.nextInt(5000) - 2500));
+        }
+
+        Map<Integer, Long> expected =
+            authors.stream().collect(Collectors.groupingBy(Author::getYear, Collectors.counting()));
+        IntLongMap counts = authors.parallelStream().collect(countingByInt(Author::getYear));
+
+        assertThat(counts.size(), is(expected.size()));
+        for (Map.Entry<Integer, Long> entry : expected.entrySet()) {
+            assertThat(counts.get(entry.getKey()), is(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void indexingAuthorsWithDuplicatedNames() {
+        List<Author> authors =
+            Arrays.asList(new Author("John", 1000),
+                new Author("John", 2000),
+                new Author("Peter", 1000));
+
+        AuthorIndex first = authors.stream().collect(indexingByName(Author::getName, Author::getYear, 2, AuthorIndex.Merge.KEEP_FIRST));
+        AuthorIndex latest = authors.stream().collect(indexingByName(Author::getName, Author::getYear, 2, AuthorIndex.Merge.KEEP_MAX));
+        AuthorIndex sums = authors.stream().collect(indexingByName(Author::getName, Author::getYear, 2, AuthorIndex.Merge.SUM));
+
+        assertThat(first.names(), is(new String[] {"John", "Peter"}));
+        assertThat(first.getYear("John"), is(1000L));
+        assertThat(latest.getYear("John"), is(2000L));
+        assertThat(sums.getYear("John"), is(3000L));
+        assertThat(sums.getCount("John"), is(2L));
+        assertThat(sums.containsName("Mary"), is(false));
+    }
+
+    @Test
+    public void indexingInParallelMatchesToMap() {
+        List<Author> authors = new ArrayList<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 100000; i++) {
+            authors.add(new Author("author" + random.nextInt(20000), random.nextInt(3000)));
+        }
+
+        Map<String, Integer> expected =
+            authors.stream().collect(Collectors.toMap(Author::getName, Author::getYear, Math::max));
+        AuthorIndex index =
+            authors.parallelStream().collect(indexingByName(Author::getName, Author::getYear, AuthorIndex.Merge.KEEP_MAX));
+
+        assertThat(index.size(), is(expected.size()));
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertThat(index.getYear(entry.getKey()), is((long) entry.getValue()));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package streams;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SequenceTests {
+
+    @Test
+    public void generatingLikeIterate() {
+        double[] iterated = Stream.iterate(1.0, p -> p + 2).limit(20).mapToDouble(p -> p).toArray();
+        IntUnaryOperator arithmetic = n -> n + 3;
+
+        assertThat(DoubleSequence.arithmetic(1.0, 2.0, 20).toArray(), is(iterated));
+        assertThat(DoubleSequence.arithmetic(1.0, 2.0, 20).sum(), is(400.0));
+        assertThat(
+            IntSequence.arithmetic(0, 3, 10).toArray(),
+            is(IntStream.iterate(0, arithmetic).limit(10).toArray()));
+        assertThat(DoubleSequence.geometric(1.0, 2.0, 11).get(10), is(1024.0));
+        assertThat(DoubleSequence.arithmetic(0.0, 1.0, 4).map(2.0, 1.0).toArray(), is(new double[] {1.0, 3.0, 5.0, 7.0}));
+    }
+
+    @Test
+    public void splittingGivesTheSameValues() {
+        DoubleSequence random = DoubleSequence.random(42, 100000);
+        DoubleSequence geometric = DoubleSequence.geometric(1.0, 1.00001, 100000);
+        IntSequence dice = IntSequence.random(7, 6, 100000);
+
+        assertThat(random.parallelStream().toArray(), is(random.toArray()));
+        assertThat(geometric.parallelStream().toArray(), is(geometric.toArray()));
+        assertThat(dice.parallelStream().sum(), is((int) dice.sum()));
+        assertThat(dice.stream().allMatch(value -> value >= 0 && value < 6), is(true));
+        assertThat(Math.abs(random.sum() / random.size() - 0.5) < 0.01, is(true));
+        assertThat(random.spliterator().trySplit().estimateSize(), is(50000L));
+    }
+
+    @Test
+    public void advancingOneByOneGivesTheSameValues() {
+        DoubleSequence geometric = DoubleSequence.geometric(1.0, 1.00001, 3000);
+        IntSequence dice = IntSequence.random(7, 6, 3000);
+        double[] expected = geometric.toArray();
+        double[] advanced = new double[expected.length];
+        int[] count = {0};
+
+        Spliterator.OfDouble values = geometric.spliterator();
+        for (int i = 0; i < 1500; i++) {
+            values.tryAdvance((double value) -> advanced[count[0]++] = value);
+        }
+        assertThat(values.estimateSize(), is(1500L));
+        assertThat(values.trySplit() == null, is(true));
+        values.forEachRemaining((double value) -> advanced[count[0]++] = value);
+        assertThat(advanced, is(expected));
+
+        PrimitiveIterator.OfInt iterator = dice.stream().iterator();
+        for (int value : dice.toArray()) {
+            assertThat(iterator.nextInt(), is(value));
+        }
+        assertThat(iterator.hasNext(), is(false));
+    }
+}
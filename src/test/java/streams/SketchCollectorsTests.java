@@ -0,0 +1,112 @@
+package streams;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static streams.SketchCollectors.quantiles;
+import static streams.SketchCollectors.countingDistinct;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import lambda.Car;
+import lambda.Author;
+
+@RunWith(JUnit4.class)
+public class SketchCollectorsTests {
+
+    @Test
+    public void estimatingQuantilesOfPrices() {
+        List<Car> cars = new ArrayList<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 200000; i++) {
+            cars.add(new Car("brand", "model", Math.abs(random.nextGaussian()) * 10000));
+        }
+
+        QuantileSketch sequential = cars.stream().collect(quantiles(car -> car.price));
+        QuantileSketch parallel = cars.parallelStream().collect(quantiles(car -> car.price));
+
+        double[] prices = cars.stream().mapToDouble(car -> car.price).sorted().toArray();
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            assertThat(rankError(prices, sequential.quantile(q), q) < 0.02, is(true));
+            assertThat(rankError(prices, parallel.quantile(q), q) < 0.02, is(true));
+        }
+        assertThat(parallel.getCount(), is(200000L));
+        assertThat(parallel.getMax(), is(prices[prices.length - 1]));
+        assertThat(parallel.retained() < 1000, is(true));
+    }
+
+    @Test
+    public void mergingSketchesOfDifferentSizes() {
+        Random random = new Random(41);
+        for (int n : new int[] {1000, 100000}) {
+            QuantileSketch small = new QuantileSketch();
+            QuantileSketch big = new QuantileSketch();
+            QuantileSketch other = new QuantileSketch();
+            small.accept(0.5);
+            other.accept(0.5);
+            double[] values = new double[n + 1];
+            values[n] = 0.5;
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextDouble();
+                big.accept(values[i]);
+            }
+            Arrays.sort(values);
+
+            small.merge(big);
+            big.merge(other);
+            for (QuantileSketch merged : Arrays.asList(small, big)) {
+                assertThat(merged.getCount(), is(n + 1L));
+                assertThat(rankError(values, merged.quantile(0.5), 0.5) < 0.02, is(true));
+            }
+        }
+
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(random.nextDouble());
+        }
+        QuantileSketch parallel =
+            Stream.concat(Stream.of(0.5), values.stream()).parallel().filter(d -> true).collect(quantiles(d -> d));
+        assertThat(parallel.getCount(), is(100001L));
+    }
+
+    @Test
+    public void estimatingDistinctNames() {
+        List<Author> authors = new ArrayList<>();
+        Random random = new Random(37);
+        for (int i = 0; i < 300000; i++) {
+            authors.add(new Author("author" + random.nextInt(100000), 2000));
+        }
+
+        long exact = authors.stream().map(Author::getName).distinct().count();
+        long sequential = authors.stream().collect(countingDistinct(Author::getName)).estimate();
+        long parallel = authors.parallelStream().collect(countingDistinct(Author::getName)).estimate();
+
+        assertThat(Math.abs(sequential - exact) < exact * 0.03, is(true));
+        assertThat(parallel, is(sequential));
+    }
+
+    @Test
+    public void countingFewDistinctItemsExactly() {
+        long estimate =
+            Arrays.asList("John", "Peter", "John", "Mary").stream().collect(countingDistinct(name -> name)).estimate();
+
+        assertThat(estimate, is(3L));
+    }
+
+    /**
+     * How far, as a fraction of all items, the estimate is from the rank
+     * it should have
+     */
+    private static double rankError(final double[] sorted, final double estimate, final double q) {
+        int rank = Arrays.binarySearch(sorted, estimate);
+        rank = rank < 0 ? -rank - 1 : rank;
+        return Math.abs((double) rank / sorted.length - q);
+    }
+}